@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceConverterDispatchBenchmark.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 6:48:05 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.benchmarks;
+
+import com.gs.platform.api.ResourceConverter;
+import com.gs.platform.api.ResourceMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link ResourceConverter#forType} with more than 30
+ * ResourceConverters registered: the 10 built in ones plus 32 more, one per
+ * type in {@link #TYPES}. It measures the lookup of the first built in
+ * converter, the last registered one, and a type that no converter supports.
+ * <p>
+ * It only uses public ResourceConverter API, so it can also be run against
+ * older GS.Platform classes by putting them ahead of benchmarks.jar on the
+ * classpath.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceConverterDispatchBenchmark {
+
+    /**
+     * The types of the extra ResourceConverters, none of which are supported
+     * by the built in ones.
+     */
+    public static final Class[] TYPES = {
+        java.util.ArrayList.class, java.util.LinkedList.class,
+        java.util.HashMap.class, java.util.TreeMap.class,
+        java.util.HashSet.class, java.util.TreeSet.class,
+        java.util.ArrayDeque.class, java.util.Vector.class,
+        java.util.Stack.class, java.util.Hashtable.class,
+        java.util.Properties.class, java.util.BitSet.class,
+        java.util.Date.class, java.util.Calendar.class,
+        java.util.TimeZone.class, java.util.Currency.class,
+        java.util.UUID.class, java.util.Optional.class,
+        java.util.Random.class, java.util.Scanner.class,
+        java.math.BigInteger.class, java.math.BigDecimal.class,
+        java.time.Instant.class, java.time.Duration.class,
+        java.time.LocalDate.class, java.time.LocalTime.class,
+        java.time.LocalDateTime.class, java.time.ZonedDateTime.class,
+        java.time.Period.class, java.time.ZoneId.class,
+        java.nio.file.Path.class, java.io.File.class
+    };
+
+    private Class lastType;
+
+    /* A converter that's only ever looked up, never used.
+     */
+    private static final class TypeConverter extends ResourceConverter {
+
+        TypeConverter(Class type) {
+            super(type);
+        }
+
+        @Override
+        public Object parseString(String s, ResourceMap r) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        for (Class type : TYPES) {
+            ResourceConverter.register(new TypeConverter(type));
+        }
+        lastType = TYPES[TYPES.length - 1];
+    }
+
+    @Benchmark
+    public Object builtInType() {
+        return ResourceConverter.forType(Boolean.class);
+    }
+
+    @Benchmark
+    public Object lastRegisteredType() {
+        return ResourceConverter.forType(lastType);
+    }
+
+    @Benchmark
+    public Object unsupportedType() {
+        return ResourceConverter.forType(Thread.class);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceMapLookupBenchmark.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 5:02:18 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.benchmarks;
+
+import com.gs.platform.api.ResourceMap;
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read throughput of a three level {@link ResourceMap} chain: a string from
+ * the leaf, a string that's defined at the root of the chain, a converted
+ * value, and a key that isn't defined anywhere. Run it with the JMH
+ * <code>-t</code> option to compare thread counts, for example
+ * <code>java -jar benchmarks.jar ResourceMapLookup -t 16</code>.
+ * <p>
+ * It only uses ResourceMap API that predates the lock-free snapshots, so it
+ * can also be run against older GS.Platform classes by putting them ahead of
+ * benchmarks.jar on the classpath.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceMapLookupBenchmark {
+
+    private static final String RESOURCES
+            = "com.gs.platform.benchmarks.resources.";
+    private ResourceMap leaf;
+
+    @Setup
+    public void setUp() {
+        ClassLoader cl = ResourceMapLookupBenchmark.class.getClassLoader();
+        ResourceMap app = new ResourceMap(null, cl, RESOURCES + "App");
+        ResourceMap mid = new ResourceMap(app, cl, RESOURCES + "Mid");
+        leaf = new ResourceMap(mid, cl, RESOURCES + "Leaf");
+        // Load every bundle before measuring
+        leaf.getString("leaf.text");
+        leaf.getString("mid.text");
+        leaf.getString("Application.name");
+    }
+
+    @Benchmark
+    public String leafString() {
+        return leaf.getString("leaf.text");
+    }
+
+    @Benchmark
+    public String rootString() {
+        return leaf.getString("Application.name");
+    }
+
+    @Benchmark
+    public String expression() {
+        return leaf.getString("leaf.title");
+    }
+
+    @Benchmark
+    public Object convertedValue() {
+        return leaf.getObject("app.color", Color.class);
+    }
+
+    @Benchmark
+    public Object missingKey() {
+        return leaf.getObject("no.such.key", String.class);
+    }
+}
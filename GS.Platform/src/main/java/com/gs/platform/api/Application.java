@@ -51,7 +51,15 @@ import java.util.ArrayList;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 import javax.swing.SwingUtilities;
@@ -131,6 +139,9 @@ import javax.swing.UnsupportedLookAndFeelException;
  * Application.homepage = A URL like http://www.javadesktop.org
  * Application.description =  One brief sentence
  * Application.lookAndFeel = either system, default, or a LookAndFeel class name
+ * Application.preloadClasses = Classes whose ResourceMaps are loaded during startup
+ * Application.taskService = virtual, to run the default TaskService's Tasks on virtual threads
+ * Application.asyncIcons = true, to decode resource icons in the background
  * </pre>
  * <p>
  * The `Application.lookAndFeel` resource is used to initialize the `UIManager
@@ -185,6 +196,15 @@ public abstract class Application extends AbstractBean {
      *     }
      * </pre> The `applicationClass} constructor and `startup` methods run on
      * the event dispatching thread.
+     * <p>
+     * While `initialize` runs, the ResourceMaps for the classes listed by the
+     * `Application.preloadClasses` resource are loaded on a few background
+     * threads, and `startup` waits up to two seconds for them to be ready. If the
+     * `Application.preloadResourceUsage` resource is true, the resources that
+     * the previous session converted are converted in the same way, and the
+     * resources that this session converts are saved by {@link #exit exit}.
+     * See {@link ResourceManager#setRecordingResourceUsage
+     * ResourceManager.setRecordingResourceUsage}.
      *
      * @param <T>
      * @param applicationClass the `Application` class to launch
@@ -197,7 +217,10 @@ public abstract class Application extends AbstractBean {
         Runnable doCreateAndShowGUI = () -> {
             try {
                 application = create(applicationClass);
+                CompletableFuture<Void> preloaded
+                        = application.preloadResourceMaps();
                 application.initialize(args);
+                application.waitForPreloadedResourceMaps(preloaded);
                 application.startup();
                 application.waitForReady();
             } catch (Exception e) {
@@ -273,6 +296,16 @@ public abstract class Application extends AbstractBean {
 
         appResourceMap.putResource("platform", platform());
 
+        /* Replace the default TaskService if the Application.taskService
+         * resource asks for virtual threads.
+         */
+        ctx.configureDefaultTaskService(appResourceMap.getString(
+                "Application.taskService"));
+
+        // Read once here, not by every Icon conversion
+        ResourceMap.setAsyncIcons(appResourceMap.getBooleanValue(
+                "Application.asyncIcons", false));
+
         if (!Beans.isDesignTime()) {
             /* Initialize the UIManager lookAndFeel property with the
              * Application.lookAndFeel resource.  If the the resource
@@ -309,6 +342,133 @@ public abstract class Application extends AbstractBean {
         return application;
     }
 
+    /* Loads the ResourceMap chains for the classes listed by the
+     * Application.preloadClasses resource in the background, so that
+     * they're ready by the time startup() creates the GUI.  If the
+     * Application.preloadResourceUsage resource is true, the resources
+     * that the previous session converted are converted too, and this
+     * session's resource usage is recorded, see exit().
+     */
+    private CompletableFuture<Void> preloadResourceMaps() {
+        ApplicationContext ctx = getContext();
+        ResourceManager resourceManager = ctx.getResourceManager();
+        boolean preloadUsage = ctx.getResourceMap().getBooleanValue(
+                "Application.preloadResourceUsage", false);
+        String classNames = ctx.getResourceMap().getString(
+                "Application.preloadClasses");
+        boolean preloadClasses = (classNames != null)
+                && !classNames.isBlank();
+        if (!preloadUsage && !preloadClasses) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ThreadPoolExecutor executor = createPreloadExecutor();
+        CompletableFuture<Void> usagePreloaded
+                = CompletableFuture.completedFuture(null);
+        if (preloadUsage) {
+            resourceManager.setRecordingResourceUsage(true);
+            usagePreloaded = resourceManager.preloadResourceUsage(executor);
+        }
+        CompletableFuture<Void> preloaded = usagePreloaded;
+        if (preloadClasses) {
+            ClassLoader classLoader = ctx.getApplicationClass()
+                    .getClassLoader();
+            preloaded = CompletableFuture.supplyAsync(
+                    () -> preloadClasses(classNames, classLoader), executor)
+                    .thenCompose(classes -> resourceManager
+                    .preloadResourceMaps(classes, executor))
+                    .thenCombine(usagePreloaded, (v1, v2) -> null);
+        }
+        preloaded.whenComplete((v, e) -> executor.shutdown());
+        return preloaded;
+    }
+
+    /* Preloading runs on its own daemon threads rather than the common
+     * ForkJoinPool, which the application and its libraries may be
+     * using.  The threads go away once preloading has finished.
+     */
+    private static ThreadPoolExecutor createPreloadExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        int nThreads = Math.max(1, Math.min(4,
+                Runtime.getRuntime().availableProcessors()));
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads,
+                nThreads, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "Application-preload-"
+                            + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static List<Class> preloadClasses(String classNames,
+            ClassLoader classLoader) {
+        List<Class> classes = new ArrayList<>();
+        for (String className : classNames.trim().split("[\\s,]+")) {
+            try {
+                classes.add(Class.forName(className, false, classLoader));
+            } catch (ClassNotFoundException | LinkageError e) {
+                String msg = "Couldn't preload the ResourceMap for "
+                        + "Application.preloadClasses class \""
+                        + className + "\"";
+                record.setInstant(Instant.now());
+                record.setSourceMethodName("preloadResourceMaps");
+                record.setParameters(new Object[]{className});
+                Long tID = Thread.currentThread().getId();
+                record.setThreadID(tID.intValue());
+                record.setThrown(e);
+                record.setMessage(msg);
+                record.setSequenceNumber(1l);
+
+                logger.warn(record);
+            }
+        }
+        return classes;
+    }
+
+    /* Preloading is only an optimization: if it failed, then the
+     * ResourceMaps are just loaded when they're first used.  The event
+     * dispatching thread only waits for so long, after that startup()
+     * proceeds and the preloading carries on in the background.
+     */
+    private static final long PRELOAD_TIMEOUT_MILLIS = 2000L;
+
+    private void waitForPreloadedResourceMaps(
+            CompletableFuture<Void> preloaded) {
+        try {
+            preloaded.get(PRELOAD_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (TimeoutException e) {
+            String msg = "Starting up before the Application.preloadClasses "
+                    + "ResourceMaps or the resource usage profile are ready";
+            record.setInstant(Instant.now());
+            record.setSourceMethodName("launch");
+            record.setParameters(new Object[]{PRELOAD_TIMEOUT_MILLIS});
+            Long tID = Thread.currentThread().getId();
+            record.setThreadID(tID.intValue());
+            record.setThrown(null);
+            record.setMessage(msg);
+            record.setSequenceNumber(1l);
+
+            logger.debug(record);
+        } catch (ExecutionException | CancellationException e) {
+            String msg = "Couldn't preload the Application.preloadClasses "
+                    + "ResourceMaps or the resource usage profile";
+            record.setInstant(Instant.now());
+            record.setSourceMethodName("launch");
+            record.setParameters(null);
+            Long tID = Thread.currentThread().getId();
+            record.setThreadID(tID.intValue());
+            record.setThrown(e);
+            record.setMessage(msg);
+            record.setSequenceNumber(1l);
+
+            logger.warn(record);
+        }
+    }
+
     /* Defines the default value for the platform resource, 
      * either "osx" or "default".
      */
@@ -538,6 +698,7 @@ public abstract class Application extends AbstractBean {
                 }
             });
             shutdown();
+            saveResourceUsage();
         } catch (Exception e) {
             record.setInstant(Instant.now());
             record.setSourceMethodName("launch");
@@ -555,6 +716,32 @@ public abstract class Application extends AbstractBean {
         }
     }
 
+    /* Saves the resources that this session converted, so that the next
+     * launch can preload them.  See preloadResourceMaps().
+     */
+    private void saveResourceUsage() {
+        ResourceManager resourceManager = getContext().getResourceManager();
+        if (!resourceManager.isRecordingResourceUsage()) {
+            return;
+        }
+        try {
+            resourceManager.saveResourceUsage();
+        } catch (IOException e) {
+            String msg = "Couldn't save the resource usage profile";
+            record.setInstant(Instant.now());
+            record.setSourceMethodName("exit");
+            record.setParameters(new Object[]{
+                ResourceManager.RESOURCE_USAGE_FILE_NAME});
+            Long tID = Thread.currentThread().getId();
+            record.setThreadID(tID.intValue());
+            record.setThrown(e);
+            record.setMessage(msg);
+            record.setSequenceNumber(1l);
+
+            logger.warn(record);
+        }
+    }
+
     /**
      * Called by {@link #exit exit} to terminate the application. Calls
      * `Runtime.getRuntime().exit(0)}, which halts the JVM.
@@ -130,6 +130,7 @@ public class ApplicationContext extends AbstractBean {
             throw new IllegalStateException("application has already been launched");
         }
         this.application = application;
+        ResourceStatistics.setApplicationContext(this);
     }
 
     /**
@@ -429,10 +430,40 @@ public class ApplicationContext extends AbstractBean {
         }
     }
 
+    /**
+     * Returns the TaskService with the specified name, or null if there isn't
+     * one.
+     * <p>
+     * The TaskService named {@value TaskService#VIRTUAL} is created and added
+     * the first time it's asked for, if it hasn't been added already. It runs
+     * each Task on its own virtual thread, see
+     * {@link TaskService#newVirtualThreadTaskService(java.lang.String)
+     * TaskService.newVirtualThreadTaskService}.</p>
+     *
+     * @param name the name of the TaskService
+     * @return the named TaskService or null
+     * @throws IllegalArgumentException if name is null
+     * @see #addTaskService(com.gs.platform.api.TaskService)
+     */
     public TaskService getTaskService(String name) {
         if (name == null) {
             throw new IllegalArgumentException("null name");
         }
+        TaskService taskService = findTaskService(name);
+        if ((taskService == null) && TaskService.VIRTUAL.equals(name)) {
+            synchronized (taskServices) {
+                taskService = findTaskService(name);
+                if (taskService == null) {
+                    taskService = TaskService.newVirtualThreadTaskService(
+                            name);
+                    addTaskService(taskService);
+                }
+            }
+        }
+        return taskService;
+    }
+
+    private TaskService findTaskService(String name) {
         for (TaskService taskService : taskServices) {
             if (name.equals(taskService.getName())) {
                 return taskService;
@@ -441,9 +472,32 @@ public class ApplicationContext extends AbstractBean {
         return null;
     }
 
+    /* Called by Application.launch() with the value of the
+     * Application.taskService resource, before any Tasks have been
+     * executed.  If it's TaskService.VIRTUAL, the default TaskService is
+     * replaced with one that runs each Task on a virtual thread.
+     */
+    void configureDefaultTaskService(String kind) {
+        if ((kind == null) || !TaskService.VIRTUAL.equals(kind.trim())) {
+            return;
+        }
+        TaskService oldTaskService = getTaskService();
+        if ((oldTaskService != null) && !oldTaskService.getTasks().isEmpty()) {
+            return;
+        }
+        if (oldTaskService != null) {
+            removeTaskService(oldTaskService);
+            oldTaskService.shutdown();
+        }
+        addTaskService(TaskService.newVirtualThreadTaskService("default"));
+    }
+
     /**
      * Returns the default TaskService, i.e. the one named "default":
-     * <code>return getTaskService("default")</code>. The
+     * <code>return getTaskService("default")</code>. If the application's
+     * <code>Application.taskService</code> resource is
+     * {@value TaskService#VIRTUAL}, the default TaskService runs each Task on
+     * its own virtual thread, on Java 21 and later. The
      * {@link ApplicationAction#actionPerformed ApplicationAction actionPerformed}
      * method executes background <code>Tasks</code> on the default TaskService.
      * Application's can launch Tasks in the same way, e.g.
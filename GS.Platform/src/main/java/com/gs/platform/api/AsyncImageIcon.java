@@ -0,0 +1,315 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   AsyncImageIcon.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 12:10:38 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+/**
+ * An <code>ImageIcon</code> whose image is decoded on a background thread.
+ * <p>
+ * Until the image has been loaded, an <code>AsyncImageIcon</code> paints its
+ * (optional) placeholder icon. The background thread reads the image's size
+ * from the image file's header before it decodes the image, and until then
+ * the icon reports the placeholder's size. Once the size is known, and again
+ * once the image has been loaded, every component that painted the icon in
+ * the meantime is revalidated and repainted on the event dispatching thread.
+ * Creating a window full of large icons therefore isn't bound by image
+ * I/O.</p>
+ * <p>
+ * The {@link ResourceMap} Icon converter returns <code>AsyncImageIcon</code>s
+ * when the <code>Application.asyncIcons</code> resource is true:</p>
+ * <pre>
+ * Application.asyncIcons = true
+ * </pre><p>
+ * Images are loaded through the shared {@link ImageCache}. If the image is
+ * already cached, the converter returns the cached ImageIcon instead.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see ImageCache
+ * @see ResourceMap#getIcon(java.lang.String)
+ */
+public final class AsyncImageIcon extends ImageIcon {
+
+    private static final ThreadPoolExecutor loader = createLoader();
+    private final URL url;
+    private final Icon placeholder;
+    private volatile int[] imageSize = null; // see load()
+    private final transient Set<Component> waitingComponents;
+    private volatile boolean loaded = false;
+
+    /**
+     * Creates an icon that paints nothing until the image at <code>url</code>
+     * has been loaded.
+     *
+     * @param url the location of the image
+     * @throws IllegalArgumentException if url is null
+     */
+    public AsyncImageIcon(URL url) {
+        this(url, null);
+    }
+
+    /**
+     * Creates an icon that paints <code>placeholder</code> until the image at
+     * <code>url</code> has been loaded. Neither the image's size nor the image
+     * itself are read by the calling thread.
+     *
+     * @param url the location of the image
+     * @param placeholder the icon to paint in the meantime, or null
+     * @throws IllegalArgumentException if url is null
+     */
+    public AsyncImageIcon(URL url, Icon placeholder) {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+        this.url = url;
+        this.placeholder = placeholder;
+        this.waitingComponents = Collections.newSetFromMap(new WeakHashMap<>());
+        setDescription(url.toExternalForm());
+        loader.execute(this::load);
+    }
+
+    /* Returns the width and height of the image at url, or null if
+     * they can't be read.  Only the image's header is read, the image
+     * isn't decoded.
+     */
+    private static int[] readImageSize(URL url) {
+        try (InputStream in = url.openStream();
+                ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = (iis == null) ? null
+                    : ImageIO.getImageReaders(iis);
+            if ((readers == null) || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                return new int[]{reader.getWidth(0), reader.getHeight(0)};
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /* AsyncImageIcons are serialized as their URL and placeholder, and
+     * deserialized as a new AsyncImageIcon that loads the image again,
+     * with its own set of waiting components.  ImageIcon's serialized
+     * form can't represent an image that hasn't been loaded yet.
+     */
+    private static final class SerializedForm implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final URL url;
+        private final Icon placeholder;
+
+        SerializedForm(URL url, Icon placeholder) {
+            this.url = url;
+            this.placeholder = placeholder;
+        }
+
+        private Object readResolve() {
+            return new AsyncImageIcon(url, placeholder);
+        }
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(url, placeholder);
+    }
+
+    private void readObject(ObjectInputStream in)
+            throws InvalidObjectException {
+        throw new InvalidObjectException("SerializedForm required");
+    }
+
+    private static ThreadPoolExecutor createLoader() {
+        AtomicInteger threadCount = new AtomicInteger();
+        int nThreads = Math.max(2, Runtime.getRuntime().availableProcessors()
+                / 2);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads,
+                nThreads, 1L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "AsyncImageIcon-"
+                            + threadCount.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /* Runs on a loader thread.  The image's size is published first, so
+     * that layouts can make room for the image while it's being decoded.
+     */
+    private void load() {
+        int[] size = readImageSize(url);
+        if (size != null) {
+            imageSize = size;
+            SwingUtilities.invokeLater(() -> updateComponents(false));
+        }
+        ImageIcon icon = ImageCache.getSharedInstance().getImageIcon(url);
+        SwingUtilities.invokeLater(() -> {
+            setImage(icon.getImage());
+            loaded = true;
+            updateComponents(true);
+        });
+    }
+
+    /* Revalidates and repaints the components that have painted the icon
+     * so far.  Once the image has been loaded, they're forgotten.
+     */
+    private void updateComponents(boolean isLoaded) {
+        List<Component> components;
+        synchronized (waitingComponents) {
+            components = new ArrayList<>(waitingComponents);
+            if (isLoaded) {
+                waitingComponents.clear();
+            }
+        }
+        for (Component c : components) {
+            if (c instanceof JComponent) {
+                ((JComponent) c).revalidate();
+            } else {
+                c.invalidate();
+            }
+            c.repaint();
+        }
+    }
+
+    /**
+     * Returns the URL of the image.
+     *
+     * @return the image's location
+     */
+    public final URL getURL() {
+        return url;
+    }
+
+    /**
+     * Returns true once the image has been loaded, and the icon paints it.
+     *
+     * @return true if the image has been loaded
+     */
+    public final boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Paints the image if it's been loaded, otherwise the placeholder. In the
+     * latter case <code>c</code> is repainted once the image has been loaded.
+     *
+     * @param c {@inheritDoc }
+     * @param g {@inheritDoc }
+     * @param x {@inheritDoc }
+     * @param y {@inheritDoc }
+     */
+    @Override
+    public void paintIcon(Component c, Graphics g, int x, int y) {
+        if (loaded) {
+            super.paintIcon(c, g, x, y);
+        } else {
+            if (c != null) {
+                synchronized (waitingComponents) {
+                    waitingComponents.add(c);
+                }
+            }
+            if (placeholder != null) {
+                placeholder.paintIcon(c, g, x, y);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return the image's width or, if it hasn't been read yet, the
+     * placeholder's width
+     */
+    @Override
+    public int getIconWidth() {
+        if (loaded) {
+            return super.getIconWidth();
+        }
+        int[] size = imageSize;
+        if (size != null) {
+            return size[0];
+        }
+        return (placeholder == null) ? 0 : placeholder.getIconWidth();
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return the image's height or, if it hasn't been read yet, the
+     * placeholder's height
+     */
+    @Override
+    public int getIconHeight() {
+        if (loaded) {
+            return super.getIconHeight();
+        }
+        int[] size = imageSize;
+        if (size != null) {
+            return size[1];
+        }
+        return (placeholder == null) ? 0 : placeholder.getIconHeight();
+    }
+}
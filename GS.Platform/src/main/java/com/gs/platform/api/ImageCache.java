@@ -0,0 +1,301 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ImageCache.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 12:02:11 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.awt.MediaTracker;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.ImageIcon;
+
+/**
+ * An application-wide cache of the images loaded by the {@link ResourceMap}
+ * Icon, ImageIcon, and Image {@link ResourceConverter ResourceConverters}.
+ * <p>
+ * Images are cached by their resolved URL, so every ResourceMap that refers to
+ * the same image file, a toolbar icon for example, shares a single decoded
+ * copy of it. The cache holds on to the most recently used images until their
+ * (estimated) decoded size exceeds the {@link #getByteBudget byte budget}.
+ * Least recently used images beyond the budget are only softly referenced,
+ * which means that they're reused if they're requested again before the
+ * garbage collector reclaims them.</p>
+ * <p>
+ * ResourceMaps only refer weakly to the images they've converted, so the
+ * budget bounds the images that are kept for reuse. Images that are still
+ * used, by a component or anything else that refers to them, stay in memory
+ * whatever the budget is, but they aren't loaded twice.</p>
+ * <p>
+ * The ImageIcons returned by the cache are shared by every caller that
+ * requests the same image. They must not be modified, for example with
+ * <code>ImageIcon.setImage</code> or <code>setDescription</code>; copy an icon
+ * before changing it.</p>
+ * <p>
+ * The cache keeps simple statistics, {@link #getHitCount hits},
+ * {@link #getMissCount misses}, {@link #getEvictionCount evictions}, and the
+ * {@link #getByteCount number of bytes} held within the budget, that can be
+ * used to tune the budget for a particular application.</p>
+ * <p>
+ * <code>ImageCache</code> is thread safe. Images are loaded without holding
+ * the cache's lock.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see ResourceMap#getIcon(java.lang.String)
+ * @see ResourceMap#getImageIcon(java.lang.String)
+ */
+public final class ImageCache {
+
+    /**
+     * The default value of the byteBudget property: 32 MiB.
+     */
+    public static final long DEFAULT_BYTE_BUDGET = 32L * 1024L * 1024L;
+
+    private static final ImageCache sharedInstance = new ImageCache();
+    private final LinkedHashMap<String, CachedImage> images;
+    private final Map<String, SoftReference<ImageIcon>> evictedImages;
+    private long byteBudget = DEFAULT_BYTE_BUDGET;
+    private long byteCount = 0L;
+    private long hitCount = 0L;
+    private long missCount = 0L;
+    private long evictionCount = 0L;
+
+    private ImageCache() {
+        images = new LinkedHashMap<>(64, 0.75f, true);  // LRU order
+        evictedImages = new HashMap<>();
+    }
+
+    /**
+     * Returns the application-wide image cache that's used by the
+     * ResourceMap image and icon converters.
+     *
+     * @return the shared ImageCache
+     */
+    public static ImageCache getSharedInstance() {
+        return sharedInstance;
+    }
+
+    private static final class CachedImage {
+
+        private final ImageIcon icon;
+        private final long byteCount;
+
+        CachedImage(ImageIcon icon) {
+            this.icon = icon;
+            // Assume one 32 bit ARGB pixel per image pixel
+            long w = Math.max(icon.getIconWidth(), 0);
+            long h = Math.max(icon.getIconHeight(), 0);
+            this.byteCount = w * h * 4L;
+        }
+    }
+
+    /**
+     * Returns the image loaded from <code>url</code>, loading it first if it
+     * isn't cached. Images that fail to load are returned, but not cached.
+     * The ImageIcon is shared, it must not be modified.
+     *
+     * @param url the resolved location of the image
+     * @return the ImageIcon for the image at <code>url</code>
+     *
+     * @throws IllegalArgumentException if url is null
+     */
+    public ImageIcon getImageIcon(URL url) {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+        // URL.equals and hashCode may resolve host names, so key by string
+        String key = url.toExternalForm();
+        ImageIcon icon = lookup(key, true);
+        if (icon != null) {
+            return icon;
+        }
+        icon = new ImageIcon(url);
+        int status = icon.getImageLoadStatus();
+        if ((status == MediaTracker.ERRORED) || (status == MediaTracker.ABORTED)) {
+            return icon;
+        }
+        return store(key, icon);
+    }
+
+    /**
+     * Returns the image loaded from <code>url</code> if it's cached, otherwise
+     * null. Unlike {@link #getImageIcon(java.net.URL)} this method never loads
+     * the image, and a null result isn't counted as a miss.
+     *
+     * @param url the resolved location of the image
+     * @return the cached ImageIcon for the image at <code>url</code> or null
+     *
+     * @throws IllegalArgumentException if url is null
+     */
+    public ImageIcon getCachedImageIcon(URL url) {
+        if (url == null) {
+            throw new IllegalArgumentException("null url");
+        }
+        return lookup(url.toExternalForm(), false);
+    }
+
+    private synchronized ImageIcon lookup(String key, boolean countMiss) {
+        CachedImage cachedImage = images.get(key);
+        if (cachedImage != null) {
+            hitCount++;
+            return cachedImage.icon;
+        }
+        SoftReference<ImageIcon> ref = evictedImages.remove(key);
+        ImageIcon icon = (ref == null) ? null : ref.get();
+        if (icon != null) {
+            hitCount++;
+            put(key, new CachedImage(icon));
+            return icon;
+        }
+        if (countMiss) {
+            missCount++;
+        }
+        return null;
+    }
+
+    /* If another thread loaded the same image while we were loading it,
+     * the first one wins so that there's only ever one copy.
+     */
+    private synchronized ImageIcon store(String key, ImageIcon icon) {
+        CachedImage cachedImage = images.get(key);
+        if (cachedImage != null) {
+            return cachedImage.icon;
+        }
+        put(key, new CachedImage(icon));
+        return icon;
+    }
+
+    private void put(String key, CachedImage cachedImage) {
+        images.put(key, cachedImage);
+        byteCount += cachedImage.byteCount;
+        trimToBudget();
+    }
+
+    /* Demote least recently used images to soft references until the
+     * strongly referenced images fit within the budget.  The most recently
+     * used image is always kept, even if it's bigger than the budget.
+     */
+    private void trimToBudget() {
+        Iterator<Map.Entry<String, CachedImage>> entries
+                = images.entrySet().iterator();
+        while ((byteCount > byteBudget) && (images.size() > 1)
+                && entries.hasNext()) {
+            Map.Entry<String, CachedImage> entry = entries.next();
+            entries.remove();
+            byteCount -= entry.getValue().byteCount;
+            evictionCount++;
+            evictedImages.put(entry.getKey(),
+                    new SoftReference<>(entry.getValue().icon));
+        }
+        evictedImages.values().removeIf(ref -> ref.get() == null);
+    }
+
+    /**
+     * Returns the maximum number of bytes of decoded image data that the cache
+     * holds on to. The default is {@link #DEFAULT_BYTE_BUDGET}.
+     *
+     * @return the byte budget
+     * @see #setByteBudget(long)
+     */
+    public synchronized long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Sets the maximum number of bytes of decoded image data that the cache
+     * holds on to. If the cache currently holds more than that, the least
+     * recently used images are evicted.
+     *
+     * @param byteBudget the new byte budget, zero or more
+     * @throws IllegalArgumentException if byteBudget is negative
+     */
+    public synchronized void setByteBudget(long byteBudget) {
+        if (byteBudget < 0L) {
+            throw new IllegalArgumentException("invalid byteBudget");
+        }
+        this.byteBudget = byteBudget;
+        trimToBudget();
+    }
+
+    /**
+     * Returns the estimated number of bytes of decoded image data that the
+     * cache currently holds on to within its budget.
+     *
+     * @return the number of bytes cached
+     */
+    public synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns the number of lookups that were satisfied by the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Returns the number of lookups that had to load an image.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Returns the number of images that have been demoted to soft references
+     * to stay within the byte budget.
+     *
+     * @return the number of evictions
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Removes all of the images from the cache. The statistics are not reset.
+     */
+    public synchronized void clear() {
+        images.clear();
+        evictedImages.clear();
+        byteCount = 0L;
+    }
+}
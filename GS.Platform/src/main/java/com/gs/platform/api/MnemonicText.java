@@ -58,10 +58,24 @@ import javax.swing.JLabel;
  */
 class MnemonicText {
 
-    private MnemonicText() {
-    } // not used
+    private final String text;
+    private final int mnemonicKey;
+    private final int mnemonicIndex;
+
+    private MnemonicText(String text, int mnemonicKey, int mnemonicIndex) {
+        this.text = text;
+        this.mnemonicKey = mnemonicKey;
+        this.mnemonicIndex = mnemonicIndex;
+    }
 
     public static void configure(Object target, String markedText) {
+        parse(markedText).configure(target);
+    }
+
+    /* Splits markedText into the label text and its mnemonic once, so
+     * that the result can be applied to any number of targets.
+     */
+    static MnemonicText parse(String markedText) {
         String text = markedText;
         int mnemonicIndex = -1;
         int mnemonicKey = KeyEvent.VK_UNDEFINED;
@@ -78,6 +92,10 @@ class MnemonicText {
                     markerIndex);
             mnemonicKey = mnemonicKey(sci.next());
         }
+        return new MnemonicText(text, mnemonicKey, mnemonicIndex);
+    }
+
+    void configure(Object target) {
         if (target instanceof javax.swing.Action) {
             configureAction((javax.swing.Action) target, text, mnemonicKey,
                     mnemonicIndex);
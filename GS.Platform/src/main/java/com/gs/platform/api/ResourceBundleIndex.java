@@ -0,0 +1,356 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceBundleIndex.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 1:04:52 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * An index of the ResourceBundles that exist on the classpath, which lets a
+ * {@link ResourceMap} skip the bundle names, and bundle locales, that aren't
+ * there instead of probing the classpath for each of them.
+ * <p>
+ * The {@link ResourceManager} asks for a bundle for every class in a
+ * ResourceMap chain, and <code>ResourceBundle.getBundle</code> searches the
+ * classpath for every candidate locale of every one of those names. Most of
+ * them don't exist. The index is generated at build time by running this
+ * class's {@link #main(java.lang.String[]) main} method, the GS.Platform build
+ * does so in the <code>process-classes</code> phase, and it's written to
+ * {@value #INDEX_RESOURCE} in the classes directory. Applications can run the
+ * same step in their own build.</p>
+ * <p>
+ * An index only speaks for the classpath root it was built from. Bundles in
+ * packages that no index covers are looked up the usual way. In the packages
+ * that an index covers, the bundles and locales that it lists are loaded
+ * without probing for them, and the ones that it doesn't list are only
+ * skipped once a look at the classpath confirms that they don't exist: a
+ * jar that was built without an index, a language pack for example, can add
+ * bundles and locales to any package.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see ResourceMap#getBundleNames()
+ */
+public final class ResourceBundleIndex {
+
+    /**
+     * The name of the index resource.
+     */
+    public static final String INDEX_RESOURCE
+            = "META-INF/gs-platform/bundles.idx";
+
+    private static final Logger logger = Logger.getLogger(
+            ResourceBundleIndex.class.getName());
+    private static final String PACKAGE_PREFIX = "package ";
+    private static final ResourceBundleIndex EMPTY = new ResourceBundleIndex(
+            null, Collections.emptySet(), Collections.emptySet());
+    private static final Map<ClassLoader, ResourceBundleIndex> indexes
+            = new WeakHashMap<>();
+    private final WeakReference<ClassLoader> classLoader;
+    private final Set<String> packages;
+    private final Set<String> bundles;
+    private final Map<String, Boolean> unindexedBundles;
+    private final ResourceBundle.Control indexedControl;
+
+    private ResourceBundleIndex(ClassLoader classLoader, Set<String> packages,
+            Set<String> bundles) {
+        this.classLoader = new WeakReference<>(classLoader);
+        this.packages = packages;
+        this.bundles = bundles;
+        this.unindexedBundles = new ConcurrentHashMap<>();
+        this.indexedControl = new IndexedControl(this);
+    }
+
+    /* Returns the union of all of the indexes visible to classLoader.  The
+     * indexes are only read once per ClassLoader.  An index only refers to
+     * its ClassLoader weakly, so that the indexes map doesn't keep the
+     * ClassLoader, and everything that it has loaded, reachable.
+     */
+    static ResourceBundleIndex forClassLoader(ClassLoader classLoader) {
+        synchronized (indexes) {
+            ResourceBundleIndex index = indexes.get(classLoader);
+            if (index == null) {
+                index = readIndexes(classLoader);
+                indexes.put(classLoader, index);
+            }
+            return index;
+        }
+    }
+
+    private static ResourceBundleIndex readIndexes(ClassLoader classLoader) {
+        Set<String> packages = new HashSet<>();
+        Set<String> bundles = new HashSet<>();
+        try {
+            Enumeration<URL> urls = (classLoader == null)
+                    ? ClassLoader.getSystemResources(INDEX_RESOURCE)
+                    : classLoader.getResources(INDEX_RESOURCE);
+            while (urls.hasMoreElements()) {
+                readIndex(urls.nextElement(), packages, bundles);
+            }
+        } catch (IOException e) {
+            // A partially read index could hide bundles that exist
+            logger.log(Level.WARNING, "couldn't read " + INDEX_RESOURCE, e);
+            return EMPTY;
+        }
+        if (packages.isEmpty()) {
+            return EMPTY;
+        }
+        return new ResourceBundleIndex(classLoader, packages, bundles);
+    }
+
+    private static void readIndex(URL url, Set<String> packages,
+            Set<String> bundles) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (line.startsWith(PACKAGE_PREFIX)) {
+                    packages.add(line.substring(PACKAGE_PREFIX.length())
+                            .trim());
+                } else {
+                    bundles.add(line);
+                }
+            }
+        }
+    }
+
+    private static String packageName(String name) {
+        int dot = name.lastIndexOf('.');
+        return (dot == -1) ? "" : name.substring(0, dot);
+    }
+
+    /* Returns true if the bundle named bundleName, one locale variant of
+     * a base name, exists.  Bundles that aren't indexed may still exist in
+     * a classpath root that wasn't indexed, so they're looked for, once,
+     * in the formats that ResourceBundle.Control supports.
+     */
+    private boolean exists(String bundleName) {
+        if (bundles.contains(bundleName)) {
+            return true;
+        }
+        return unindexedBundles.computeIfAbsent(bundleName, name -> {
+            String path = name.replace('.', '/');
+            return (getResource(path + ".properties") != null)
+                    || (getResource(path + ".class") != null);
+        });
+    }
+
+    private URL getResource(String name) {
+        ClassLoader loader = classLoader.get();
+        return (loader == null) ? ClassLoader.getSystemResource(name)
+                : loader.getResource(name);
+    }
+
+    /* Equivalent to ResourceBundle.getBundle(baseName, locale, classLoader)
+     * except that the candidate locales that don't exist aren't searched
+     * for.  Returns null if none of them exist.
+     */
+    ResourceBundle getBundle(String baseName, Locale locale,
+            ClassLoader classLoader) {
+        if ((classLoader != this.classLoader.get())
+                || !packages.contains(packageName(baseName))) {
+            return ResourceBundle.getBundle(baseName, locale, classLoader);
+        }
+        if (indexedControl.getCandidateLocales(baseName, locale).isEmpty()) {
+            return null;
+        }
+        return ResourceBundle.getBundle(baseName, locale, classLoader,
+                indexedControl);
+    }
+
+    /* A Control that only offers the candidate locales that exist.  It's
+     * a static class so that it doesn't refer to anything but the index.
+     */
+    private static final class IndexedControl extends ResourceBundle.Control {
+
+        private final ResourceBundleIndex index;
+
+        IndexedControl(ResourceBundleIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public List<Locale> getCandidateLocales(String baseName,
+                Locale locale) {
+            List<Locale> candidates = new ArrayList<>();
+            for (Locale candidate : super.getCandidateLocales(baseName,
+                    locale)) {
+                if (index.exists(toBundleName(baseName, candidate))) {
+                    candidates.add(candidate);
+                }
+            }
+            return candidates;
+        }
+    }
+
+    /**
+     * Writes a ResourceBundle index for the files in one or more directory
+     * trees, normally a project's classes directory and its resource
+     * directories.
+     * <p>
+     * The first argument is the classes directory that the index is written
+     * to, as {@value #INDEX_RESOURCE}. The remaining arguments are the
+     * directories to index; if there are none the classes directory is
+     * indexed. Directories that don't exist are ignored.</p>
+     *
+     * @param args the classes directory followed by the directories to index
+     * @throws IOException if the directories can't be read or the index
+     * can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("usage: ResourceBundleIndex classesDir "
+                    + "[dir...]");
+            System.exit(1);
+        }
+        Path classesDir = Paths.get(args[0]);
+        List<Path> roots = new ArrayList<>();
+        for (int i = (args.length == 1) ? 0 : 1; i < args.length; i++) {
+            Path root = Paths.get(args[i]);
+            if (Files.isDirectory(root)) {
+                roots.add(root);
+            }
+        }
+        Set<String> packages = new TreeSet<>();
+        Set<String> bundles = new TreeSet<>();
+        URL[] urls = new URL[roots.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = roots.get(i).toUri().toURL();
+        }
+        try (URLClassLoader loader = new URLClassLoader(urls,
+                ClassLoader.getPlatformClassLoader())) {
+            for (Path root : roots) {
+                indexFiles(root, loader, packages, bundles);
+            }
+        }
+        Path index = classesDir.resolve(INDEX_RESOURCE);
+        Files.createDirectories(index.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(index,
+                StandardCharsets.UTF_8)) {
+            writer.write("# ResourceBundle index, generated by "
+                    + ResourceBundleIndex.class.getName());
+            writer.newLine();
+            for (String packageName : packages) {
+                writer.write(PACKAGE_PREFIX + packageName);
+                writer.newLine();
+            }
+            for (String bundle : bundles) {
+                writer.write(bundle);
+                writer.newLine();
+            }
+        }
+        System.out.println("Indexed " + bundles.size() + " ResourceBundles in "
+                + packages.size() + " packages: " + index);
+    }
+
+    private static void indexFiles(Path root, ClassLoader loader,
+            Set<String> packages, Set<String> bundles) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String path = root.relativize(file).toString().replace(
+                        file.getFileSystem().getSeparator(), "/");
+                if (path.startsWith("META-INF/")) {
+                    return;
+                }
+                boolean isClass = path.endsWith(".class");
+                boolean isProperties = path.endsWith(".properties");
+                if (!isClass && !isProperties) {
+                    return;
+                }
+                String name = path.substring(0, path.lastIndexOf('.'))
+                        .replace('/', '.');
+                String packageName = packageName(name);
+                packages.add(packageName);
+                if (isProperties) {
+                    bundles.add(name);
+                } else if (!name.contains("$")
+                        && !name.endsWith("module-info")
+                        && !name.endsWith("package-info")) {
+                    // ResourceManager looks for bundles in pkg.resources
+                    packages.add(packageName.isEmpty() ? "resources"
+                            : packageName + ".resources");
+                    if (isResourceBundleClass(name, loader)) {
+                        bundles.add(name);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* Classes that can't be loaded here are indexed anyway, it's only
+     * safe to leave out the ones known not to be ResourceBundles.
+     */
+    private static boolean isResourceBundleClass(String name,
+            ClassLoader loader) {
+        try {
+            Class<?> c = Class.forName(name, false, loader);
+            return ResourceBundle.class.isAssignableFrom(c);
+        } catch (ClassNotFoundException | LinkageError e) {
+            return true;
+        }
+    }
+}
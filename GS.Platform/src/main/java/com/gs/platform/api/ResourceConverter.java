@@ -158,11 +158,19 @@ public abstract class ResourceConverter {
         if (resourceConverter == null) {
             throw new IllegalArgumentException("null resourceConverter");
         }
-        resourceConverters.add(resourceConverter);
+        synchronized (resourceConverters) {
+            resourceConverters.add(resourceConverter);
+            converterDispatch = new ConverterDispatch(
+                    resourceConverters.toArray(new ResourceConverter[0]));
+        }
     }
 
     /**
      * Retrieves a <code>ResourceConverter</code> for the specified type.
+     * <p>
+     * The result is cached per type until another ResourceConverter is
+     * {@link #register registered}, so <code>supportsType</code> should only
+     * depend on its argument.</p>
      *
      * @param type the class type converter
      * @return the first <code>ResourceConverter</code> that supports the given
@@ -172,14 +180,36 @@ public abstract class ResourceConverter {
         if (type == null) {
             throw new IllegalArgumentException("null type");
         }
-        for (ResourceConverter sc : resourceConverters) {
-            if (sc.supportsType(type)) {
-                return sc;
+        Object sc = converterDispatch.get(type);
+        return (sc == noResourceConverter) ? null : (ResourceConverter) sc;
+    }
+
+    /* Caches the first ResourceConverter that supports each type, or
+     * noResourceConverter, given the ResourceConverters that were
+     * registered when it was created.  Registering a ResourceConverter
+     * replaces the whole cache.
+     */
+    private static final class ConverterDispatch extends ClassValue<Object> {
+
+        private final ResourceConverter[] converters;
+
+        ConverterDispatch(ResourceConverter[] converters) {
+            this.converters = converters;
+        }
+
+        @Override
+        protected Object computeValue(Class<?> type) {
+            for (ResourceConverter sc : converters) {
+                if (sc.supportsType(type)) {
+                    return sc;
+                }
             }
+            return noResourceConverter;
         }
-        return null;
     }
 
+    private static final Object noResourceConverter = new Object();
+
     private static ResourceConverter[] resourceConvertersArray = {
         new BooleanResourceConverter("true", "on", "yes"),
         new IntegerResourceConverter(),
@@ -192,8 +222,10 @@ public abstract class ResourceConverter {
         new URLResourceConverter(),
         new URIResourceConverter()
     };
-    private static List<ResourceConverter> resourceConverters
+    private static final List<ResourceConverter> resourceConverters
             = new ArrayList<>(Arrays.asList(resourceConvertersArray));
+    private static volatile ConverterDispatch converterDispatch
+            = new ConverterDispatch(resourceConvertersArray.clone());
 
     private static class BooleanResourceConverter extends ResourceConverter {
 
@@ -35,13 +35,24 @@ package com.gs.platform.api;
 
 import com.gs.platform.utils.LogRecord;
 import com.gs.platform.utils.Logger;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import javax.swing.SwingUtilities;
 
 /**
  * The application's `ResourceManager} provides read-only cached access to
@@ -79,12 +90,25 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class ResourceManager extends AbstractBean {
 
+    /**
+     * The name of the {@link LocalStorage} file that the resource usage
+     * profile is saved to.
+     *
+     * @see #saveResourceUsage()
+     */
+    public static final String RESOURCE_USAGE_FILE_NAME
+            = "resource-usage.xml";
+
     private static final LogRecord record = new LogRecord(ResourceManager.class.getSimpleName());
     private static final Logger logger = Logger.getLogger(Application.getInstance(), Logger.TRACE);
-    private final Map<String, ResourceMap> resourceMaps;
+    private volatile ClassResourceMaps classResourceMaps;
+    private final Map<SharedResourceMapKey, WeakReference<ResourceMap>> sharedResourceMaps;
     private final ApplicationContext context;
     private List<String> applicationBundleNames = null;
-    private ResourceMap appResourceMap = null;
+    private volatile ResourceMap appResourceMap = null;
+    private final Map<String, Set<String>> resourceUsage
+            = new ConcurrentHashMap<>();
+    private volatile boolean recordingResourceUsage = false;
 
     /**
      * Construct a `ResourceManager}. Typically applications will not create a
@@ -108,7 +132,8 @@ public class ResourceManager extends AbstractBean {
             throw new IllegalArgumentException("null context");
         }
         this.context = context;
-        resourceMaps = new ConcurrentHashMap<>();
+        classResourceMaps = new ClassResourceMaps();
+        sharedResourceMaps = new WeakHashMap<>();
     }
 
     /**
@@ -167,7 +192,70 @@ public class ResourceManager extends AbstractBean {
                 }
             }
             ResourceMap parent = createResourceMapChain(cl, root, names);
-            return createResourceMap(cl, parent, rmNames);
+            return getSharedResourceMap(cl, parent, rmNames);
+        }
+    }
+
+    /* Returns the ResourceMap for bundleNames and parent, creating it
+     * if necessary.  Chains that have a common tail, for example the
+     * chains of the subclasses of a class from another package, share
+     * the ResourceMaps in that tail rather than each loading and caching
+     * the same resources.  ResourceMaps handle Locale changes themselves,
+     * so a shared ResourceMap serves every Locale.
+     *
+     * Each ResourceMap holds on to its own key, so its entry lasts exactly
+     * as long as it does, and the ClassLoader that the key refers to can
+     * be unloaded when the chains that use it are released.
+     */
+    private ResourceMap getSharedResourceMap(ClassLoader cl,
+            ResourceMap parent, List<String> bundleNames) {
+        SharedResourceMapKey key = new SharedResourceMapKey(cl, parent,
+                bundleNames);
+        synchronized (sharedResourceMaps) {
+            WeakReference<ResourceMap> ref = sharedResourceMaps.get(key);
+            ResourceMap rm = (ref == null) ? null : ref.get();
+            if (rm == null) {
+                rm = createResourceMap(cl, parent, bundleNames);
+                rm.setSharedKey(key);
+                sharedResourceMaps.put(key, new WeakReference<>(rm));
+            }
+            return rm;
+        }
+    }
+
+    /* Identifies a ResourceMap by its ClassLoader, its parent, and its
+     * bundle names.  Parents are compared by identity, they're shared
+     * too.
+     */
+    private static final class SharedResourceMapKey {
+
+        private final ClassLoader classLoader;
+        private final ResourceMap parent;
+        private final List<String> bundleNames;
+        private final int hashCode;
+
+        SharedResourceMapKey(ClassLoader classLoader, ResourceMap parent,
+                List<String> bundleNames) {
+            this.classLoader = classLoader;
+            this.parent = parent;
+            this.bundleNames = bundleNames;
+            this.hashCode = (31 * (31 * System.identityHashCode(classLoader)
+                    + System.identityHashCode(parent))) + bundleNames.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SharedResourceMapKey)) {
+                return false;
+            }
+            SharedResourceMapKey key = (SharedResourceMapKey) o;
+            return (classLoader == key.classLoader) && (parent == key.parent)
+                    && bundleNames.equals(key.bundleNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
@@ -176,47 +264,95 @@ public class ResourceManager extends AbstractBean {
      * i.e. if the ApplicationContext applicationClass property hasn't
      * been set yet, then the ResourceMap just corresponds to
      * Application.class.
+     *
+     * The chain can be created by the preloading threads as well as the
+     * event dispatching thread, so it's only created once, under a lock,
+     * and published through a volatile field.
      */
     private ResourceMap getApplicationResourceMap() {
-        if (appResourceMap == null) {
-            List<String> appBundleNames = getApplicationBundleNames();
-            Class appClass = getContext().getApplicationClass();
-            if (appClass == null) {
-                String msg = "getApplicationResourceMap(): no Application "
-                        + "class";
-                record.setInstant(Instant.now());
-                record.setMessage(msg);
-                record.setParameters(null);
-                record.setSourceMethodName("getApplicationResourceMap");
-                Long tid = Thread.currentThread().getId();
-                record.setThreadID(tid.intValue());
-                logger.warn(record);
-                appClass = Application.class;
+        ResourceMap rm = appResourceMap;
+        if (rm == null) {
+            synchronized (this) {
+                rm = appResourceMap;
+                if (rm == null) {
+                    rm = createApplicationResourceMap();
+                    appResourceMap = rm;
+                }
             }
-            ClassLoader classLoader = appClass.getClassLoader();
-            appResourceMap = createResourceMapChain(classLoader, null,
-                    appBundleNames.listIterator());
         }
-        return appResourceMap;
+        return rm;
+    }
+
+    private ResourceMap createApplicationResourceMap() {
+        List<String> appBundleNames = getApplicationBundleNames();
+        Class appClass = getContext().getApplicationClass();
+        if (appClass == null) {
+            String msg = "getApplicationResourceMap(): no Application "
+                    + "class";
+            record.setInstant(Instant.now());
+            record.setMessage(msg);
+            record.setParameters(null);
+            record.setSourceMethodName("getApplicationResourceMap");
+            Long tid = Thread.currentThread().getId();
+            record.setThreadID(tid.intValue());
+            logger.warn(record);
+            appClass = Application.class;
+        }
+        ClassLoader classLoader = appClass.getClassLoader();
+        ResourceMap rm = createResourceMapChain(classLoader, null,
+                appBundleNames.listIterator());
+        if (recordingResourceUsage) {
+            recordResourceUsage("", rm);
+        }
+        return rm;
     }
 
-    /* Lazily creates the ResourceMap chain for the the class from 
-     * startClass to stopClass.
+    /* Returns the cached ResourceMap chain for the class from startClass
+     * to stopClass, creating it if necessary.
      */
     private ResourceMap getClassResourceMap(Class startClass, Class stopClass) {
-        String classResourceMapKey = startClass.getName() + stopClass.getName();
-        ResourceMap classResourceMap = resourceMaps.get(classResourceMapKey);
-        if (classResourceMap == null) {
-            List<String> classBundleNames = allBundleNames(startClass, stopClass);
-            ClassLoader classLoader = startClass.getClassLoader();
-            ResourceMap appRM = getResourceMap();
-            classResourceMap = createResourceMapChain(classLoader, appRM,
-                    classBundleNames.listIterator());
-            resourceMaps.put(classResourceMapKey, classResourceMap);
+        return classResourceMaps.get(stopClass).get(startClass);
+    }
+
+    /* Creates the ResourceMap chain for the class from startClass to
+     * stopClass.  ClassValue may call this more than once for the same
+     * classes if they're looked up concurrently, see preloadResourceMaps,
+     * but since every ResourceMap in a chain is shared the result is the
+     * same chain.
+     */
+    private ResourceMap createClassResourceMap(Class startClass,
+            Class stopClass) {
+        List<String> classBundleNames = allBundleNames(startClass, stopClass);
+        ClassLoader classLoader = startClass.getClassLoader();
+        ResourceMap appRM = getResourceMap();
+        ResourceMap classResourceMap = createResourceMapChain(classLoader,
+                appRM, classBundleNames.listIterator());
+        if (recordingResourceUsage) {
+            recordResourceUsage(startClass.getName() + " "
+                    + stopClass.getName(), classResourceMap);
         }
         return classResourceMap;
     }
 
+    /* The cached class ResourceMap chains, by stopClass and then by
+     * startClass.  A chain is stored with its startClass, whose
+     * ClassLoader is the same as, or a descendant of, stopClass's, so the
+     * chain is released when startClass's ClassLoader is unloaded.
+     */
+    private final class ClassResourceMaps
+            extends ClassValue<ClassValue<ResourceMap>> {
+
+        @Override
+        protected ClassValue<ResourceMap> computeValue(Class<?> stopClass) {
+            return new ClassValue<ResourceMap>() {
+                @Override
+                protected ResourceMap computeValue(Class<?> startClass) {
+                    return createClassResourceMap(startClass, stopClass);
+                }
+            };
+        }
+    }
+
     /**
      * Returns a {@link ResourceMap#getParent chain} of `ResourceMaps} that
      * encapsulate the `ResourceBundles} for each class from `startClass} to
@@ -268,7 +404,10 @@ public class ResourceManager extends AbstractBean {
      * earlier in the list has precedence
      * <p>
      * ResourceMaps are constructed lazily and cached. One ResourceMap is
-     * constructed for each sequence of classes in the same package.
+     * constructed for each sequence of classes in the same package. Chains
+     * share the ResourceMaps they have in common: two chains whose tails have
+     * the same ClassLoader and bundle names get the same ResourceMaps for
+     * those tails.
      *
      * @param startClass the first class whose ResourceBundles will be included
      * @param stopClass the last class whose ResourceBundles will be included
@@ -328,6 +467,266 @@ public class ResourceManager extends AbstractBean {
         return getApplicationResourceMap();
     }
 
+    /**
+     * Creates the ResourceMap chains for <code>classes</code>, and loads their
+     * ResourceBundles for the current Locale, on <code>executor</code>.
+     * <p>
+     * Chains are otherwise created and loaded the first time they're needed,
+     * which is typically on the event dispatching thread while a window is
+     * being created. Preloading the chains for the application's windows
+     * during startup means that {@link #getResourceMap(java.lang.Class)
+     * getResourceMap} just returns a ready-to-use ResourceMap. The
+     * application's ResourceMap chain should be created before calling this
+     * method, which {@link Application#launch Application.launch} does. It
+     * preloads the classes listed by the <code>Application.preloadClasses</code>
+     * resource.</p>
+     *
+     * @param classes the classes whose ResourceMap chains will be loaded
+     * @param executor the executor that loads the chains, one task per class
+     * @return a CompletableFuture that completes when all of the chains have
+     * been loaded
+     * @throws IllegalArgumentException if classes or executor is null
+     * @see #getResourceMap(java.lang.Class)
+     */
+    public CompletableFuture<Void> preloadResourceMaps(
+            Collection<Class> classes, Executor executor) {
+        if (classes == null) {
+            throw new IllegalArgumentException("null classes");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+        getResourceMap();  // shared by every chain
+        List<CompletableFuture<Void>> preloads = new ArrayList<>();
+        for (Class cls : classes) {
+            preloads.add(CompletableFuture.runAsync(
+                    () -> getResourceMap(cls).preload(), executor));
+        }
+        return CompletableFuture.allOf(preloads.toArray(
+                new CompletableFuture[preloads.size()]));
+    }
+
+    /* The usage profile of one ResourceMap chain: "type key" strings.  The
+     * application chain's ID is "", a class chain's is "startClass
+     * stopClass".
+     */
+    private Set<String> resourceUsage(String chainID) {
+        return resourceUsage.computeIfAbsent(chainID,
+                id -> ConcurrentHashMap.newKeySet());
+    }
+
+    /* Starts recording the usage of rm's chain under chainID.  Chains are
+     * made of shared ResourceMaps, so the same chain can have more than
+     * one ID, e.g. the chains of two nested classes with the same simple
+     * name in one package.  Its IDs then share one profile, rather than
+     * the last ID to be recorded replacing the others.
+     */
+    private void recordResourceUsage(String chainID, ResourceMap rm) {
+        Set<String> usage = resourceUsage(chainID);
+        Set<String> chainUsage = rm.recordResourceUsage(usage);
+        if (chainUsage != usage) {
+            chainUsage.addAll(usage);
+            resourceUsage.put(chainID, chainUsage);
+        }
+    }
+
+    /**
+     * Returns true if the ResourceManager is recording which resources are
+     * converted, and to which types.
+     *
+     * @return true if resource usage is being recorded
+     * @see #setRecordingResourceUsage(boolean)
+     */
+    public boolean isRecordingResourceUsage() {
+        return recordingResourceUsage;
+    }
+
+    /**
+     * Starts or stops recording resource usage: the keys and types that each
+     * ResourceMap chain converts when it's asked for a resource with
+     * {@link ResourceMap#getObject(java.lang.String, java.lang.Class)
+     * getObject}. The profile is saved with {@link #saveResourceUsage()} and
+     * replayed during the next launch by
+     * {@link #preloadResourceUsage(java.util.concurrent.Executor)
+     * preloadResourceUsage}.
+     * <p>
+     * Apart from the application's chain, only the ResourceMap chains created
+     * after recording has started are recorded, so
+     * {@link Application#launch Application.launch} starts it before the
+     * application creates any of them, when the application's
+     * <code>Application.preloadResourceUsage</code> resource is true. Values
+     * that are already cached aren't recorded again, so recording doesn't
+     * slow down repeated lookups.</p>
+     *
+     * @param recordingResourceUsage true to record resource usage
+     * @see #isRecordingResourceUsage()
+     */
+    public void setRecordingResourceUsage(boolean recordingResourceUsage) {
+        boolean oldValue = this.recordingResourceUsage;
+        this.recordingResourceUsage = recordingResourceUsage;
+        if (recordingResourceUsage) {
+            ResourceMap rm = appResourceMap;
+            if (rm != null) {
+                recordResourceUsage("", rm);
+            }
+        } else {
+            for (ResourceMap rm : allResourceMaps()) {
+                rm.stopRecordingResourceUsage();
+            }
+        }
+        firePropertyChange("recordingResourceUsage", oldValue,
+                recordingResourceUsage);
+    }
+
+    /**
+     * Saves the resource usage recorded so far to the
+     * {@value #RESOURCE_USAGE_FILE_NAME} file in the application's
+     * {@link LocalStorage}. The file is written with
+     * {@link LocalStorage#save(java.lang.Object, java.lang.String)
+     * LocalStorage.save}, like the session state.
+     *
+     * @throws IOException if the profile can't be written
+     * @see #setRecordingResourceUsage(boolean)
+     */
+    public void saveResourceUsage() throws IOException {
+        HashMap<String, ArrayList<String>> profile = new HashMap<>();
+        resourceUsage.forEach((chainID, usage) -> {
+            if (!usage.isEmpty()) {
+                ArrayList<String> entries = new ArrayList<>(usage);
+                Collections.sort(entries);
+                profile.put(chainID, entries);
+            }
+        });
+        getContext().getLocalStorage().save(profile,
+                RESOURCE_USAGE_FILE_NAME);
+    }
+
+    /**
+     * Converts the resources recorded in the resource usage profile that was
+     * saved by the previous session, on <code>executor</code>.
+     * <p>
+     * Each ResourceMap chain in the profile is created, and each of its
+     * recorded resources is looked up with the type it was converted to, so
+     * that {@link ResourceMap#getObject(java.lang.String, java.lang.Class)
+     * getObject} just returns the cached value when the application's
+     * windows ask for it. Resources, types, or classes that no longer exist
+     * are skipped. If there's no profile, the returned future is already
+     * complete.</p>
+     *
+     * @param executor the executor that converts the resources, one task per
+     * ResourceMap chain
+     * @return a CompletableFuture that completes when all of the recorded
+     * resources have been converted
+     * @throws IllegalArgumentException if executor is null
+     * @see #saveResourceUsage()
+     */
+    public CompletableFuture<Void> preloadResourceUsage(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+        return CompletableFuture.supplyAsync(this::loadResourceUsage,
+                executor).thenCompose(profile -> {
+                    getResourceMap();  // shared by every chain
+                    List<CompletableFuture<Void>> preloads = new ArrayList<>();
+                    profile.forEach((chainID, usage) -> preloads.add(
+                            CompletableFuture.runAsync(() -> preloadResourceUsage(
+                            chainID, usage), executor)));
+                    return CompletableFuture.allOf(preloads.toArray(
+                            new CompletableFuture[preloads.size()]));
+                });
+    }
+
+    /* A missing or unreadable profile just means that there's nothing to
+     * preload.
+     */
+    private Map<String, List<String>> loadResourceUsage() {
+        Object profile = null;
+        try {
+            profile = getContext().getLocalStorage().load(
+                    RESOURCE_USAGE_FILE_NAME);
+        } catch (IOException e) {
+            record.setInstant(Instant.now());
+            record.setMessage("Couldn't load the resource usage profile");
+            record.setParameters(new Object[]{RESOURCE_USAGE_FILE_NAME});
+            record.setSourceMethodName("preloadResourceUsage");
+            Long tid = Thread.currentThread().getId();
+            record.setThreadID(tid.intValue());
+            record.setThrown(e);
+            logger.warn(record);
+        }
+        return toResourceUsage(profile);
+    }
+
+    /* The profile is whatever the file deserialized to, so its entries
+     * are copied one at a time and the ones with the wrong type dropped,
+     * rather than trusting an unchecked cast.
+     */
+    private static Map<String, List<String>> toResourceUsage(Object profile) {
+        if (!(profile instanceof Map)) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<String>> usage = new HashMap<>();
+        for (Map.Entry<?, ?> entry : ((Map<?, ?>) profile).entrySet()) {
+            if ((entry.getKey() instanceof String)
+                    && (entry.getValue() instanceof List)) {
+                List<String> entries = new ArrayList<>();
+                for (Object e : (List<?>) entry.getValue()) {
+                    if (e instanceof String) {
+                        entries.add((String) e);
+                    }
+                }
+                usage.put((String) entry.getKey(), entries);
+            }
+        }
+        return usage;
+    }
+
+    private void preloadResourceUsage(String chainID, List<String> usage) {
+        ResourceMap rm;
+        ClassLoader classLoader;
+        try {
+            if (chainID.isEmpty()) {
+                rm = getResourceMap();
+                classLoader = getContext().getApplicationClass()
+                        .getClassLoader();
+            } else {
+                String[] classNames = chainID.split(" ");
+                classLoader = getContext().getApplicationClass()
+                        .getClassLoader();
+                rm = getResourceMap(Class.forName(classNames[0], false,
+                        classLoader), Class.forName(classNames[1], false,
+                        classLoader));
+            }
+        } catch (ClassNotFoundException | LinkageError
+                | RuntimeException e) {
+            logSkippedResourceUsage(chainID, e);
+            return;
+        }
+        for (String entry : usage) {
+            int space = entry.indexOf(' ');
+            try {
+                Class type = Class.forName(entry.substring(0, space), false,
+                        classLoader);
+                rm.getObject(entry.substring(space + 1), type);
+            } catch (ClassNotFoundException | LinkageError
+                    | RuntimeException e) {
+                logSkippedResourceUsage(entry, e);
+            }
+        }
+    }
+
+    private void logSkippedResourceUsage(String entry, Throwable e) {
+        record.setInstant(Instant.now());
+        record.setMessage("Skipped resource usage profile entry \"" + entry
+                + "\"");
+        record.setParameters(new Object[]{entry});
+        record.setSourceMethodName("preloadResourceUsage");
+        Long tid = Thread.currentThread().getId();
+        record.setThreadID(tid.intValue());
+        record.setThrown(e);
+        logger.debug(record);
+    }
+
     /**
      * The names of the ResourceBundles to be shared by the entire application.
      * The list is in priority order: resources defined by the first
@@ -399,7 +798,10 @@ public class ResourceManager extends AbstractBean {
         } else {
             applicationBundleNames = null;
         }
-        resourceMaps.clear();
+        classResourceMaps = new ClassResourceMaps();
+        synchronized (sharedResourceMaps) {
+            sharedResourceMaps.clear();
+        }
         firePropertyChange("applicationBundleNames", oldValue,
                 applicationBundleNames);
     }
@@ -477,6 +879,74 @@ public class ResourceManager extends AbstractBean {
         return new ResourceMap(parent, classLoader, bundleNames);
     }
 
+    /**
+     * Returns the Locale whose resources the ResourceMaps provide, i.e. the
+     * default Locale.
+     *
+     * @return the current Locale
+     * @see #setLocale(java.util.Locale)
+     */
+    public Locale getLocale() {
+        return Locale.getDefault();
+    }
+
+    /**
+     * Switches the application to the resources for another Locale.
+     * <p>
+     * The default Locale is set to <code>locale</code>, and each component
+     * hierarchy that has been injected with
+     * {@link ResourceMap#injectComponents(java.awt.Component) injectComponents}
+     * is injected again, on the event dispatching thread, with the resources
+     * for the new Locale. ResourceMaps keep the resources they've loaded for
+     * each Locale, so switching back to a Locale that's been used before
+     * doesn't reload or reconvert any resources.</p>
+     *
+     * @param locale the new Locale
+     * @throws IllegalArgumentException if locale is null
+     * @see #getLocale()
+     */
+    public void setLocale(Locale locale) {
+        if (locale == null) {
+            throw new IllegalArgumentException("null locale");
+        }
+        Locale oldValue = Locale.getDefault();
+        Locale.setDefault(locale);
+        Runnable doReinjectComponents = () -> {
+            for (ResourceMap rm : allResourceMaps()) {
+                rm.reinjectComponents();
+            }
+        };
+        if (SwingUtilities.isEventDispatchThread()) {
+            doReinjectComponents.run();
+        } else {
+            SwingUtilities.invokeLater(doReinjectComponents);
+        }
+        firePropertyChange("locale", oldValue, locale);
+    }
+
+    /* Returns every ResourceMap that's been created so far and is still
+     * in use: the cached chains, including their shared ancestors,
+     * exactly once.  Every ResourceMap in a chain is shared, see
+     * getSharedResourceMap.
+     */
+    private Set<ResourceMap> allResourceMaps() {
+        Set<ResourceMap> allMaps = Collections.newSetFromMap(
+                new IdentityHashMap<>());
+        synchronized (sharedResourceMaps) {
+            for (WeakReference<ResourceMap> ref
+                    : sharedResourceMaps.values()) {
+                ResourceMap rm = ref.get();
+                if (rm != null) {
+                    allMaps.add(rm);
+                }
+            }
+        }
+        for (ResourceMap rm = appResourceMap; rm != null; rm = rm.getParent()) {
+            allMaps.add(rm);
+        }
+        return allMaps;
+    }
+
     /**
      * The value of the special Application ResourceMap resource named
      * "platform". By default the value of this resource is "osx" if the
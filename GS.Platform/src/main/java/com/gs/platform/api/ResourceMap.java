@@ -48,23 +48,37 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.Formattable;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.MissingFormatArgumentException;
 import java.util.MissingResourceException;
+import java.util.NoSuchElementException;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -75,6 +89,7 @@ import javax.swing.ImageIcon;
 import javax.swing.JLabel;
 import javax.swing.JMenu;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 
 /**
@@ -135,10 +150,15 @@ public class ResourceMap {
     private final ResourceMap parent;
     private final List<String> bundleNames;
     private final String resourcesDir;
-    private Map<String, Object> bundlesMapP = null; // see getBundlesMap()
-    private Locale locale = Locale.getDefault();    // ...
-    private Set<String> bundlesMapKeysP = null;     // set getBundlesMapKeys()
-    private boolean bundlesLoaded = false;  // ResourceBundles are loaded lazily
+    private volatile BundlesSnapshot bundlesSnapshot = null; // see getBundlesMap()
+    private final Map<Locale, BundlesSnapshot> localeSnapshots = new HashMap<>();
+    private final Map<String, Object> putResources = new HashMap<>();
+    private final Set<Component> injectedRoots = Collections.newSetFromMap(
+            new WeakHashMap<>());
+    private final ConcurrentMap<Locale, ChainedKeySet> bundlesMapKeysP
+            = new ConcurrentHashMap<>(); // see keySet()
+    private volatile Set<String> resourceUsage = null; // see recordUsage()
+    private Object sharedKey = null; // see setSharedKey()
 
     /**
      * Creates a ResourceMap that contains all of the resources defined in the
@@ -271,42 +291,532 @@ public class ResourceMap {
         return resourcesDir;
     }
 
-    /* Lazily flattens all of the ResourceBundles named in bundleNames
-     * into a single Map - bundlesMapP.  The bundleNames list is in
-     * priority order, the first entry shadows later entries.
+    /* The ResourceBundles named by a ResourceMap for a single Locale.
+     * Each bundle is loaded the first time that a lookup gets as far as
+     * it, so a lookup that the first bundle can answer doesn't load the
+     * others.  The bundles are shared by all of the snapshots for the
+     * Locale.
      */
-    private synchronized Map<String, Object> getBundlesMap() {
-        // If the default locale has changed, then reload
+    private static final class LocaleBundles {
+
+        private static final Object missingBundle = new Object();
+        private final Locale locale;
+        private final ClassLoader classLoader;
+        private final List<String> bundleNames;
+        private final AtomicReferenceArray<Object> bundles;
+        private boolean cyclesReported = false;
+
+        LocaleBundles(Locale locale, ClassLoader classLoader,
+                List<String> bundleNames) {
+            this.locale = locale;
+            this.classLoader = classLoader;
+            this.bundleNames = bundleNames;
+            this.bundles = new AtomicReferenceArray<>(bundleNames.size());
+        }
+
+        int size() {
+            return bundles.length();
+        }
+
+        /* Returns the i'th ResourceBundle, or null if it doesn't exist.
+         */
+        ResourceBundle getBundle(int i) {
+            Object bundle = bundles.get(i);
+            if (bundle == null) {
+                synchronized (this) {
+                    bundle = bundles.get(i);
+                    if (bundle == null) {
+                        bundle = loadBundle(bundleNames.get(i));
+                        bundles.set(i, bundle);
+                    }
+                }
+            }
+            return (bundle == missingBundle) ? null : (ResourceBundle) bundle;
+        }
+
+        private Object loadBundle(String bundleName) {
+            try {
+                ResourceBundle bundle = ResourceBundleIndex.forClassLoader(
+                        classLoader).getBundle(bundleName, locale, classLoader);
+                // null if neither the index nor the classpath has the bundle
+                return (bundle == null) ? missingBundle : bundle;
+            } catch (MissingResourceException ignore) {
+                /* bundleName is just a location to check, it's not
+                 * guaranteed to name a ResourceBundle
+                 */
+                logger.log(Level.FINE, "ResourceBundle \"" + bundleName
+                        + "\" does not exist.", ignore.getCause());
+                return missingBundle;
+            }
+        }
+    }
+
+    /* An immutable view of the ResourceBundles, and the putResource
+     * values, for a single Locale.  Snapshots are never modified once
+     * they've been published, readers just dereference the volatile
+     * bundlesSnapshot field and writers (see putResource) publish a
+     * modified copy.
+     *
+     * Resources are looked up in the bundles one key at a time, in
+     * priority order, and the values that have been found so far are kept
+     * in entries.  The bundles are only flattened into a single bundlesMap
+     * when all of the keys are needed, see getBundlesMap().
+     *
+     * The raw resource values are never replaced by getObject, string
+     * conversions are cached per (key, type) in convertedValues instead.
+     * The conversion cache lives and dies with the snapshot, so a Locale
+     * change discards it along with the raw values.  The values of ${}
+     * expressions depend on the rest of the chain, they're cached per
+     * chain, see ResolvedKeys.
+     */
+    private static final class BundlesSnapshot {
+
+        private static final Object noEntry = new Object();
+        private final Locale locale;
+        private final LocaleBundles bundles;
+        private final Map<String, Object> putResources;
+        private final ConcurrentMap<String, Object> entries;
+        private final ConvertedValues convertedValues;
+        private final ConcurrentMap<String, ExpressionTemplate> templates;
+        private volatile Map<String, Object> bundlesMap = null;
+        private volatile Set<String> cyclicKeys = Collections.emptySet();
+
+        BundlesSnapshot(LocaleBundles bundles, Map<String, Object> putResources) {
+            this.locale = bundles.locale;
+            this.bundles = bundles;
+            this.putResources = Collections.unmodifiableMap(
+                    new HashMap<>(putResources));
+            this.entries = new ConcurrentHashMap<>();
+            this.convertedValues = new ConvertedValues();
+            this.templates = new ConcurrentHashMap<>();
+        }
+
+        /* Returns the raw value of key, nullResource if it was defined
+         * with a null value, or null if it isn't defined.  Resources
+         * defined with putResource shadow the bundles, and the first
+         * bundle that defines key shadows the rest.
+         */
+        Object lookup(String key) {
+            Map<String, Object> map = bundlesMap;
+            if (map != null) {
+                return map.get(key);
+            }
+            Object value = entries.get(key);
+            if (value == null) {
+                value = putResources.get(key);
+                if (value == null) {
+                    value = noEntry;
+                    for (int i = 0; i < bundles.size(); i++) {
+                        ResourceBundle bundle = bundles.getBundle(i);
+                        if ((bundle != null) && bundle.containsKey(key)) {
+                            value = bundle.getObject(key);
+                            break;
+                        }
+                    }
+                }
+                entries.putIfAbsent(key, value);
+            }
+            return (value == noEntry) ? null : value;
+        }
+
+        /* Loads all of the bundles and flattens them into a single Map.
+         * The bundles are in priority order, the first entry shadows
+         * later entries.  Every ${key} expression is compiled and the
+         * circular references between them are reported.
+         */
+        Map<String, Object> getBundlesMap() {
+            Map<String, Object> map = bundlesMap;
+            if (map != null) {
+                return map;
+            }
+            synchronized (this) {
+                if (bundlesMap == null) {
+                    map = new HashMap<>();
+                    for (int i = bundles.size() - 1; i >= 0; i--) {
+                        ResourceBundle bundle = bundles.getBundle(i);
+                        if (bundle != null) {
+                            Enumeration<String> keys = bundle.getKeys();
+                            while (keys.hasMoreElements()) {
+                                String key = keys.nextElement();
+                                map.put(key, bundle.getObject(key));
+                            }
+                        }
+                    }
+                    // Resources defined with putResource apply to every Locale
+                    map.putAll(putResources);
+                    compileTemplates(map);
+                    cyclicKeys = findCyclicKeys();
+                    bundlesMap = Collections.unmodifiableMap(map);
+                    reportCycles();
+                }
+                return bundlesMap;
+            }
+        }
+
+        /* Compiles every ${key} expression once.
+         */
+        private void compileTemplates(Map<String, Object> map) {
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object value = entry.getValue();
+                if ((value instanceof String)
+                        && ((String) value).contains("${")) {
+                    try {
+                        getTemplate(entry.getKey(), (String) value);
+                    } catch (LookupException e) {
+                        // Reported again if the resource is looked up
+                        logger.log(Level.WARNING, "resource \"" + entry.getKey()
+                                + "\": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        /* Returns the compiled form of key's expression, compiling it if
+         * it hasn't been already.
+         */
+        ExpressionTemplate getTemplate(String key, String expr) {
+            ExpressionTemplate template = templates.get(key);
+            if ((template == null) || !template.expression.equals(expr)) {
+                template = ExpressionTemplate.compile(expr);
+                templates.put(key, template);
+            }
+            return template;
+        }
+
+        /* Returns the keys whose expressions (transitively) refer to
+         * themselves.  Evaluating one of them would never terminate, so
+         * they're reported when the bundles are flattened and rejected by
+         * getObject.
+         */
+        private Set<String> findCyclicKeys() {
+            Set<String> cyclic = new HashSet<>();
+            Set<String> visited = new HashSet<>();
+            for (String key : templates.keySet()) {
+                findCyclicKeys(key, new ArrayList<>(), visited, cyclic);
+            }
+            return cyclic.isEmpty() ? Collections.emptySet() : cyclic;
+        }
+
+        private void findCyclicKeys(String key, List<String> path,
+                Set<String> visited, Set<String> cyclic) {
+            int i = path.indexOf(key);
+            if (i != -1) {
+                cyclic.addAll(path.subList(i, path.size()));
+                return;
+            }
+            ExpressionTemplate template = templates.get(key);
+            if ((template == null) || !visited.add(key)) {
+                return;
+            }
+            path.add(key);
+            for (String variable : template.variables) {
+                findCyclicKeys(variable, path, visited, cyclic);
+            }
+            path.remove(path.size() - 1);
+        }
+
+        // Once per ResourceMap and Locale, not once per putResource copy
+        private void reportCycles() {
+            synchronized (bundles) {
+                if (bundles.cyclesReported) {
+                    return;
+                }
+                bundles.cyclesReported = true;
+            }
+            for (String key : cyclicKeys) {
+                logger.log(Level.WARNING, "circular ${} reference in resource \""
+                        + key + "\"");
+            }
+        }
+
+        /* Returns a copy of this snapshot in which key has been defined
+         * with putResource.  The values that have been looked up and
+         * converted so far are kept, except for key's.  The conversions
+         * that depend on key, i.e. the ${} expressions that refer to it,
+         * aren't cached in snapshots.
+         */
+        BundlesSnapshot withResource(String key, Object value,
+                Map<String, Object> putResources) {
+            BundlesSnapshot copy = new BundlesSnapshot(bundles, putResources);
+            if (bundlesMap != null) {
+                copy.getBundlesMap();
+            } else {
+                copy.entries.putAll(entries);
+                copy.entries.remove(key);
+            }
+            copy.convertedValues.values.putAll(convertedValues.values);
+            copy.convertedValues.values.remove(key);
+            copy.templates.putAll(templates);
+            copy.templates.remove(key);
+            return copy;
+        }
+
+        boolean isFor(Locale locale) {
+            return (this.locale == locale) || this.locale.equals(locale);
+        }
+    }
+
+    /* A ResourceConverter conversion that's in progress, see getObject.
+     * Threads that need the same conversion wait for its result instead of
+     * converting the same string again.
+     */
+    private static final class Conversion {
+
+        private final Thread converter = Thread.currentThread();
+        private final CompletableFuture<Object> result
+                = new CompletableFuture<>();
+
+        Object await(String key, Class type) {
+            if (converter == Thread.currentThread()) {
+                String msg = "circular conversion";
+                throw new LookupException(msg, key, type);
+            }
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /* A converted value that's only weakly referenced, because it's
+     * cached elsewhere, see ImageCacheConverter.
+     */
+    private static final class WeakValue extends WeakReference<Object> {
+
+        WeakValue(Object value) {
+            super(value);
+        }
+    }
+
+    /* The string conversions of resource values, (key, type) to value.
+     * A value of nullResource means that the conversion yielded null, a
+     * Conversion means that it's in progress, and a cleared WeakValue
+     * means that it has to be converted again.
+     */
+    private static final class ConvertedValues {
+
+        private final ConcurrentMap<String, Map<Class, Object>> values
+                = new ConcurrentHashMap<>();
+
+        /* Returns the cached conversion of key to type, nullResource
+         * if the conversion yielded null, or null if key hasn't been
+         * converted to type yet.
+         */
+        Object get(String key, Class type) {
+            Map<Class, Object> typedValues = values.get(key);
+            Object value = (typedValues == null) ? null : typedValues.get(
+                    type);
+            if (value instanceof WeakValue) {
+                return ((WeakValue) value).get();
+            }
+            return (value instanceof Conversion) ? null : value;
+        }
+
+        /* Claims the conversion of key to type for the current thread.
+         * Returns null if the caller should convert it, and then call
+         * end or fail, otherwise the Conversion that another thread has
+         * already started or the value it produced.
+         */
+        Object start(String key, Class type, Conversion conversion) {
+            Map<Class, Object> typedValues = values.computeIfAbsent(key,
+                    k -> new ConcurrentHashMap<>(4));
+            Object started = typedValues.putIfAbsent(type, conversion);
+            while (started instanceof WeakValue) {
+                Object value = ((WeakValue) started).get();
+                if (value != null) {
+                    return value;
+                }
+                if (typedValues.replace(type, started, conversion)) {
+                    return null;
+                }
+                started = typedValues.putIfAbsent(type, conversion);
+            }
+            return started;
+        }
+
+        /* If weak is true, the value is only weakly referenced once the
+         * conversion is over.
+         */
+        void end(String key, Class type, Conversion conversion,
+                Object value, boolean weak) {
+            value = (value == null) ? nullResource : value;
+            values.get(key).replace(type, conversion,
+                    (weak && (value != nullResource))
+                    ? new WeakValue(value) : value);
+            conversion.result.complete(value);
+        }
+
+        void fail(String key, Class type, Conversion conversion,
+                Throwable e) {
+            values.get(key).remove(type, conversion);
+            conversion.result.completeExceptionally(e);
+        }
+
+        void put(String key, Class type, Object value) {
+            values.computeIfAbsent(key,
+                    k -> new ConcurrentHashMap<>(4)).put(type,
+                            (value == null) ? nullResource : value);
+        }
+
+        /* Copies the values of the keys that aren't excluded to target.
+         * Conversions that are still in progress aren't copied, they'll
+         * only ever complete here.
+         */
+        void copyTo(ConvertedValues target, Set<String> excluded) {
+            for (Map.Entry<String, Map<Class, Object>> entry
+                    : values.entrySet()) {
+                if (excluded.contains(entry.getKey())) {
+                    continue;
+                }
+                Map<Class, Object> typedValues = new ConcurrentHashMap<>(4);
+                for (Map.Entry<Class, Object> typedValue
+                        : entry.getValue().entrySet()) {
+                    if (!(typedValue.getValue() instanceof Conversion)) {
+                        typedValues.put(typedValue.getKey(),
+                                typedValue.getValue());
+                    }
+                }
+                if (!typedValues.isEmpty()) {
+                    target.values.put(entry.getKey(), typedValues);
+                }
+            }
+        }
+    }
+
+    /* Returns the snapshot for the default Locale, creating it if
+     * necessary.  The bundles themselves are loaded lazily, see
+     * BundlesSnapshot.
+     *
+     * The common case, the snapshot for the default Locale already
+     * exists, doesn't acquire a lock.
+     */
+    private BundlesSnapshot getBundlesSnapshot() {
+        BundlesSnapshot snapshot = bundlesSnapshot;
         Locale defaultLocale = Locale.getDefault();
-        if (locale != defaultLocale) {
-            bundlesLoaded = false;
-            locale = defaultLocale;
-        }
-        if (!bundlesLoaded) {
-            Map<String, Object> bundlesMap = new ConcurrentHashMap<>();
-            for (int i = bundleNames.size() - 1; i >= 0; i--) {
-                String bundleName = "";
-                try {
-                    bundleName = bundleNames.get(i);
-                    ResourceBundle bundle = ResourceBundle.getBundle(bundleName,
-                            locale, classLoader);
-                    Enumeration<String> keys = bundle.getKeys();
-                    while (keys.hasMoreElements()) {
-                        String key = keys.nextElement();
-                        bundlesMap.put(key, bundle.getObject(key));
+        if ((snapshot == null) || !snapshot.isFor(defaultLocale)) {
+            snapshot = loadBundlesSnapshot(defaultLocale);
+        }
+        return snapshot;
+    }
+
+    /* Every change to the resources that a ResourceMap provides starts
+     * with a new snapshot being published, so the tables that are derived
+     * from a chain's snapshots, see ChainSnapshots, are discarded when
+     * one of the chain's snapshots is replaced.
+     */
+    private void publishSnapshot(BundlesSnapshot snapshot) {
+        bundlesSnapshot = snapshot;
+    }
+
+    /* The snapshots of a ResourceMap and its ancestors, nearest first, at
+     * one point in time.  Values that were derived from a chain's
+     * resources are valid for as long as its snapshots are current: a
+     * change to an unrelated chain doesn't affect them.
+     */
+    private static final class ChainSnapshots {
+
+        private final Locale locale;
+        private final BundlesSnapshot[] snapshots;
+
+        ChainSnapshots(ResourceMap resourceMap) {
+            List<BundlesSnapshot> chain = new ArrayList<>();
+            for (ResourceMap rm = resourceMap; rm != null; rm = rm.getParent()) {
+                chain.add(rm.getBundlesSnapshot());
+            }
+            this.locale = chain.get(0).locale;
+            this.snapshots = chain.toArray(new BundlesSnapshot[chain.size()]);
+        }
+
+        /* Reads the published snapshots directly, rather than with
+         * getBundlesSnapshot, so checking doesn't load anything.  If the
+         * default Locale has changed, the snapshots aren't current even
+         * if they haven't been replaced yet.
+         */
+        boolean isCurrent(ResourceMap resourceMap) {
+            if (!locale.equals(Locale.getDefault())) {
+                return false;
+            }
+            ResourceMap rm = resourceMap;
+            for (BundlesSnapshot snapshot : snapshots) {
+                if ((rm == null) || (rm.bundlesSnapshot != snapshot)) {
+                    return false;
+                }
+                rm = rm.getParent();
+            }
+            return rm == null;
+        }
+
+        /* Returns the keys whose values differ between these snapshots
+         * and newer, a later state of the same chain, or null if they
+         * can't be compared because newer is for another Locale.  For
+         * a given Locale a ResourceMap's snapshots only differ in the
+         * resources that have been defined with putResource.
+         */
+        Set<String> changedKeys(ChainSnapshots newer) {
+            if (!locale.equals(newer.locale)
+                    || (snapshots.length != newer.snapshots.length)) {
+                return null;
+            }
+            Set<String> changed = new HashSet<>();
+            for (int i = 0; i < snapshots.length; i++) {
+                BundlesSnapshot snapshot = snapshots[i];
+                BundlesSnapshot newSnapshot = newer.snapshots[i];
+                if (snapshot == newSnapshot) {
+                    continue;
+                }
+                if (snapshot.bundles != newSnapshot.bundles) {
+                    return null;
+                }
+                for (Map.Entry<String, Object> entry
+                        : newSnapshot.putResources.entrySet()) {
+                    if (snapshot.putResources.get(entry.getKey())
+                            != entry.getValue()) {
+                        changed.add(entry.getKey());
+                    }
+                }
+                for (String key : snapshot.putResources.keySet()) {
+                    if (!newSnapshot.putResources.containsKey(key)) {
+                        changed.add(key);
                     }
-                } catch (MissingResourceException ignore) {
-                    /* bundleName is just a location to check, it's not
-		     * guaranteed to name a ResourceBundle
-                     */
-                    logger.log(Level.INFO, "ResourceBundle \"" + bundleName
-                            + "\" does not exist.", ignore.getCause());
                 }
             }
-            bundlesMapP = bundlesMap;
-            bundlesLoaded = true;
+            return changed;
         }
-        return bundlesMapP;
+    }
+
+    private Map<String, Object> getBundlesMap() {
+        return getBundlesSnapshot().getBundlesMap();
+    }
+
+    /* Creates the snapshot for the specified Locale, unless another
+     * thread already has, and publishes it.  If the default locale has
+     * changed, then the snapshot for the new locale is published.
+     * Snapshots are kept per Locale, so switching back and forth between
+     * locales reuses the bundles and their converted values rather than
+     * reloading them.
+     */
+    private synchronized BundlesSnapshot loadBundlesSnapshot(Locale locale) {
+        BundlesSnapshot snapshot = bundlesSnapshot;
+        if ((snapshot != null) && snapshot.isFor(locale)) {
+            return snapshot;
+        }
+        snapshot = localeSnapshots.get(locale);
+        if (snapshot == null) {
+            LocaleBundles bundles = new LocaleBundles(locale, classLoader,
+                    bundleNames);
+            snapshot = new BundlesSnapshot(bundles, putResources);
+            localeSnapshots.put(locale, snapshot);
+        }
+        publishSnapshot(snapshot);
+        return snapshot;
     }
 
     private void checkNullKey(String key) {
@@ -315,21 +825,111 @@ public class ResourceMap {
         }
     }
 
-    private synchronized Set<String> getBundlesMapKeys() {
-        if (bundlesMapKeysP == null) {
-            Set<String> allKeys = new HashSet<>(getResourceKeySet());
-            ResourceMap p = getParent();
-            if (p != null) {
-                allKeys.addAll(p.keySet());
+    /* An unmodifiable view of this ResourceMap's keys followed by its
+     * parent's keys.  The view shares both sets, rather than copying them,
+     * so each ResourceMap in a chain doesn't hold its own copy of the
+     * application ResourceMap's keys.  The view is replaced whenever
+     * either of the underlying sets is, see getBundlesMapKeys().
+     */
+    private static final class ChainedKeySet extends AbstractSet<String> {
+
+        private final Set<String> keys;
+        private final Set<String> parentKeys;
+        private int size = -1;
+
+        ChainedKeySet(Set<String> keys, Set<String> parentKeys) {
+            this.keys = keys;
+            this.parentKeys = parentKeys;
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return keys.contains(key) || parentKeys.contains(key);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private final Iterator<String> keysIterator = keys.iterator();
+                private final Iterator<String> parentKeysIterator
+                        = parentKeys.iterator();
+                private String next = null;
+
+                @Override
+                public boolean hasNext() {
+                    if (next != null) {
+                        return true;
+                    }
+                    if (keysIterator.hasNext()) {
+                        next = keysIterator.next();
+                        return true;
+                    }
+                    // Skip the parent keys that this ResourceMap shadows
+                    while (parentKeysIterator.hasNext()) {
+                        String key = parentKeysIterator.next();
+                        if (!keys.contains(key)) {
+                            next = key;
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    String key = next;
+                    next = null;
+                    return key;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            if (size == -1) {
+                int n = keys.size();
+                for (String key : parentKeys) {
+                    if (!keys.contains(key)) {
+                        n++;
+                    }
+                }
+                size = n;
             }
-            bundlesMapKeysP = Collections.unmodifiableSet(allKeys);
+            return size;
         }
-        return bundlesMapKeysP;
+    }
+
+    /* The keySet is rebuilt, which is cheap, when this ResourceMap's own
+     * keys change, i.e. after putResource, or when its parent's keySet
+     * does.  There's one per Locale, so switching back to a Locale
+     * returns the same Set as before, and the indexes that are built from
+     * it, see ComponentKeyIndex, are reused.
+     */
+    private Set<String> getBundlesMapKeys() {
+        Locale locale = Locale.getDefault();
+        Set<String> keys = getResourceKeySet();
+        ResourceMap p = getParent();
+        if (p == null) {
+            return keys;
+        }
+        Set<String> parentKeys = p.keySet();
+        ChainedKeySet chainedKeys = bundlesMapKeysP.get(locale);
+        if ((chainedKeys == null) || (chainedKeys.keys != keys)
+                || (chainedKeys.parentKeys != parentKeys)) {
+            chainedKeys = new ChainedKeySet(keys, parentKeys);
+            bundlesMapKeysP.put(locale, chainedKeys);
+        }
+        return chainedKeys;
     }
 
     /**
      * Return an unmodifiable {@link Set} that contains all of the keys in this
-     * ResourceMap and (recursively) its parent ResourceMaps.
+     * ResourceMap and (recursively) its parent ResourceMaps. The set doesn't
+     * change, resources added later with <code>putResource</code> show up in
+     * the sets that <code>keySet</code> returns from then on.
      *
      * @return all of the keys in this ResourceMap and its parent
      * @see #getParent()
@@ -350,14 +950,151 @@ public class ResourceMap {
      */
     public boolean containsKey(String key) {
         checkNullKey(key);
-        if (containsResourceKey(key)) {
-            return true;
-        } else {
-            ResourceMap p = getParent();
-            return (p != null) ? p.containsKey(key) : false;
+        return resolveKey(key) != null;
+    }
+
+    /* Maps resource keys to the ResourceMap in the chain, starting with
+     * this one, that defines them, or to missingKey.  The values of the
+     * ${} expressions that have been looked up in this ResourceMap are
+     * cached here too, since they depend on every ResourceMap in the
+     * chain, not just the one that defines them, along with the keys
+     * that each expression refers to.  A table is only valid while the
+     * chain's snapshots are current.
+     */
+    private static final class ResolvedKeys {
+
+        private final ChainSnapshots chain;
+        private final ConcurrentMap<String, Object> owners;
+        private final ConvertedValues expressionValues;
+        private final ConcurrentMap<String, String[]> expressionVariables;
+
+        ResolvedKeys(ChainSnapshots chain) {
+            this.chain = chain;
+            this.owners = new ConcurrentHashMap<>();
+            this.expressionValues = new ConvertedValues();
+            this.expressionVariables = new ConcurrentHashMap<>();
+        }
+
+        /* Returns a table for newer, a later state of the same chain.
+         * The entries for the keys that have changed since, and for the
+         * expressions that refer to them directly or through other
+         * expressions, are left out, the rest are kept.
+         */
+        ResolvedKeys update(ChainSnapshots newer) {
+            ResolvedKeys updated = new ResolvedKeys(newer);
+            Set<String> changed = chain.changedKeys(newer);
+            if (changed == null) {
+                return updated;
+            }
+            for (Map.Entry<String, Object> entry : owners.entrySet()) {
+                if (!changed.contains(entry.getKey())) {
+                    updated.owners.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Set<String> stale = dependentKeys(changed);
+            expressionValues.copyTo(updated.expressionValues, stale);
+            for (Map.Entry<String, String[]> entry
+                    : expressionVariables.entrySet()) {
+                if (!stale.contains(entry.getKey())) {
+                    updated.expressionVariables.put(entry.getKey(),
+                            entry.getValue());
+                }
+            }
+            return updated;
+        }
+
+        /* Returns keys along with the expressions that depend on them.
+         */
+        private Set<String> dependentKeys(Set<String> keys) {
+            Map<String, List<String>> dependents = new HashMap<>();
+            for (Map.Entry<String, String[]> entry
+                    : expressionVariables.entrySet()) {
+                for (String variable : entry.getValue()) {
+                    dependents.computeIfAbsent(variable,
+                            k -> new ArrayList<>(4)).add(entry.getKey());
+                }
+            }
+            Set<String> dependentKeys = new HashSet<>(keys);
+            List<String> pending = new ArrayList<>(keys);
+            while (!pending.isEmpty()) {
+                List<String> keyDependents = dependents.get(
+                        pending.remove(pending.size() - 1));
+                if (keyDependents != null) {
+                    for (String dependent : keyDependents) {
+                        if (dependentKeys.add(dependent)) {
+                            pending.add(dependent);
+                        }
+                    }
+                }
+            }
+            return dependentKeys;
         }
     }
 
+    private static final Object missingKey = new Object();
+    private volatile ResolvedKeys resolvedKeys = null;
+    private final Map<Locale, ResolvedKeys> localeResolvedKeys
+            = new HashMap<>();
+
+    /* Returns the table of resolved keys for the chain's current
+     * snapshots.  Callers get the table before they read any resources,
+     * so that values are never cached in a table that's newer than the
+     * resources they were computed from.
+     */
+    private ResolvedKeys getResolvedKeys() {
+        ResolvedKeys resolved = resolvedKeys;
+        if ((resolved == null) || !resolved.chain.isCurrent(this)) {
+            resolved = newResolvedKeys();
+        }
+        return resolved;
+    }
+
+    /* Threads that find a stale table at the same time must share its
+     * replacement, otherwise they'd each evaluate the same expressions.
+     * The tables are kept per Locale, so switching back to a Locale
+     * reuses its table if none of the chain's resources has changed.
+     * After putResource, the table is updated rather than rebuilt, see
+     * ResolvedKeys.update.
+     */
+    private synchronized ResolvedKeys newResolvedKeys() {
+        ResolvedKeys resolved = resolvedKeys;
+        if ((resolved == null) || !resolved.chain.isCurrent(this)) {
+            ChainSnapshots chain = new ChainSnapshots(this);
+            resolved = localeResolvedKeys.get(chain.locale);
+            if ((resolved == null) || !resolved.chain.isCurrent(this)) {
+                resolved = (resolved == null) ? new ResolvedKeys(chain)
+                        : resolved.update(chain);
+                localeResolvedKeys.put(chain.locale, resolved);
+            }
+            resolvedKeys = resolved;
+        }
+        return resolved;
+    }
+
+    private ResourceMap resolveKey(String key) {
+        return resolveKey(getResolvedKeys(), key);
+    }
+
+    /* Returns the first ResourceMap in the chain that contains key, or
+     * null.  Keys, including missing ones, are only looked up in each
+     * ResourceMap once until a ResourceMap in the chain changes, so the
+     * depth of the chain doesn't matter for keys that are used often.
+     */
+    private ResourceMap resolveKey(ResolvedKeys resolved, String key) {
+        Object owner = resolved.owners.get(key);
+        if (owner == null) {
+            owner = missingKey;
+            for (ResourceMap rm = this; rm != null; rm = rm.getParent()) {
+                if (rm.containsResourceKey(key)) {
+                    owner = rm;
+                    break;
+                }
+            }
+            resolved.owners.put(key, owner);
+        }
+        return (owner == missingKey) ? null : (ResourceMap) owner;
+    }
+
     /**
      * Unchecked exception thrown by {@link #getObject} when resource lookup
      * fails, for example because string conversion fails. This is not a missing
@@ -451,8 +1188,7 @@ public class ResourceMap {
      */
     protected boolean containsResourceKey(String key) {
         checkNullKey(key);
-        Map<String, Object> bundlesMap = getBundlesMap();
-        return (bundlesMap != null) && bundlesMap.containsKey(key);
+        return getBundlesSnapshot().lookup(key) != null;
     }
 
     /**
@@ -480,17 +1216,28 @@ public class ResourceMap {
      */
     protected Object getResource(String key) {
         checkNullKey(key);
-        Map<String, Object> bundlesMap = getBundlesMap();
-        Object value = (bundlesMap != null) ? bundlesMap.get(key) : null;
+        Object value = getBundlesSnapshot().lookup(key);
         return (value == nullResource) ? null : value;
     }
 
     /**
-     * By default this method is used by <code>getObject</code> to cache values
-     * that have been retrieved, evaluated (as in ${key} expressions), and
-     * string converted. A subclass could override this method to defeat caching
-     * or to refine the caching strategy. The <code>putResource</code> method
-     * lazily loads ResourceBundles.
+     * Defines or replaces the raw value of the resource named <code>key</code>
+     * in this ResourceMap, for example the special "platform" resource. Any
+     * string conversions of the previous value that <code>getObject</code> had
+     * cached are discarded. So are the cached values of the <code>${}</code>
+     * expressions that refer to <code>key</code>, directly or through other
+     * expressions, in every ResourceMap whose chain includes this one; the
+     * cached values of the other expressions are kept. The component and array
+     * key indexes and the {@link #injectComponent injection} plans of those
+     * ResourceMaps are rebuilt the next time they're used. The
+     * <code>putResource</code> method lazily loads ResourceBundles.
+     * <p>
+     * The value applies to every Locale, including Locales whose
+     * ResourceBundles are loaded later on.</p>
+     * <p>
+     * Lookups never lock, so the resources are published as an immutable
+     * snapshot that <code>putResource</code> replaces with an updated copy.
+     * Writes are comparatively expensive and should be rare.</p>
      * <p>
      * The protected <code>getResource</code>, <code>putResource</code>, and
      * <code>containsResourceKey</code>, <code>getResourceKeySet</code> abstract
@@ -508,9 +1255,21 @@ public class ResourceMap {
      */
     protected void putResource(String key, Object value) {
         checkNullKey(key);
-        Map<String, Object> bundlesMap = getBundlesMap();
-        if (bundlesMap != null) {
-            bundlesMap.put(key, (value == null) ? nullResource : value);
+        Object newValue = (value == null) ? nullResource : value;
+        synchronized (this) {
+            BundlesSnapshot current = loadBundlesSnapshot(Locale.getDefault());
+            putResources.put(key, newValue);
+            for (BundlesSnapshot snapshot
+                    : new ArrayList<>(localeSnapshots.values())) {
+                if (snapshot.lookup(key) != newValue) {
+                    BundlesSnapshot newSnapshot = snapshot.withResource(key,
+                            newValue, putResources);
+                    localeSnapshots.put(snapshot.locale, newSnapshot);
+                    if (snapshot == current) {
+                        publishSnapshot(newSnapshot);
+                    }
+                }
+            }
         }
     }
 
@@ -544,8 +1303,11 @@ public class ResourceMap {
      * The value returned by getObject will be of the specified type. If a
      * string valued resource exists for <code>key</code>, and <code>type</code>
      * is not String.class, the value will be converted using a
-     * ResourceConverter and the ResourceMap entry updated with the converted
-     * value.</p>
+     * ResourceConverter. Converted values are cached per resource and type, so
+     * the same resource can be retrieved as more than one type and its
+     * original text always remains available as a String. If several threads
+     * ask for the same resource and type before it's been converted, one of
+     * them converts it and the others wait for its result.</p>
      * <p>
      * If the named resource exists and an error occurs during lookup, then a
      * ResourceMap.LookupException is thrown. This can happen if string
@@ -592,67 +1354,182 @@ public class ResourceMap {
             }
         }
         Object value = null;
-        ResourceMap resourceMapNode = this;
-        /* Find the ResourceMap bundlesMap that contains a non-null
-	 * value for the specified key, first check this ResourceMap,
-	 * then its parents.
+        BundlesSnapshot snapshot = null;
+        /* Find the ResourceMap bundlesMap that contains the specified
+	 * key, this ResourceMap or one of its parents.  The node's snapshot
+         * is captured before its value is read so that a conversion is
+         * never cached in a snapshot that's newer than the raw value it
+         * was computed from.
+         */
+        ResolvedKeys resolved = getResolvedKeys();
+        ResourceMap resourceMapNode = resolveKey(resolved, key);
+        if (resourceMapNode != null) {
+            snapshot = resourceMapNode.getBundlesSnapshot();
+            value = resourceMapNode.getResource(key);
+        }
+        ResourceStatistics statistics = ResourceStatistics.active;
+        if (!(value instanceof String)) {
+            /* If the value we've found in resourceMapNode is the expected
+             * type, then we're done.  If the expected type is primitive
+             * and the value is the corresponding object type then we're
+             * done too.
+             */
+            if ((value != null) && !type.isAssignableFrom(value.getClass())) {
+                String msg = "named resource has wrong type";
+                throw new LookupException(msg, key, type);
+            }
+            if (statistics != null) {
+                if (resourceMapNode == null) {
+                    statistics.miss(key);
+                } else {
+                    statistics.hit(key);
+                }
+            }
+            return value;
+        }
+
+        /* String values are evaluated and converted at most once per
+         * type, the raw string in the resourceMapNode is left as is so
+         * that it can still be looked up as a String or as another type.
+         * Plain strings are converted once per resourceMapNode snapshot,
+         * ${} expressions once per chain, because their variables can be
+         * defined anywhere in this ResourceMap's chain.
          */
-        while (resourceMapNode != null) {
-            if (resourceMapNode.containsResourceKey(key)) {
-                value = resourceMapNode.getResource(key);
-                break;
+        Object convertedValue = snapshot.convertedValues.get(key, type);
+        if (convertedValue != null) {
+            if (statistics != null) {
+                statistics.hit(key);
+            }
+            return (convertedValue == nullResource) ? null : convertedValue;
+        }
+        String sValue = (String) value;
+        boolean isExpression = sValue.contains("${");
+        ConvertedValues convertedValues = snapshot.convertedValues;
+        if (isExpression) {
+            convertedValues = resolved.expressionValues;
+            convertedValue = convertedValues.get(key, type);
+            if (convertedValue != null) {
+                if (statistics != null) {
+                    statistics.hit(key);
+                }
+                return (convertedValue == nullResource) ? null
+                        : convertedValue;
             }
-            resourceMapNode = resourceMapNode.getParent();
         }
+
         /* If we've found a String expression then replace
-	 * any ${key} variables, and then reset the 
-	 * the original resourceMapNode entry.
+	 * any ${key} variables.
          */
-        if ((value instanceof String) && ((String) value).contains("${")) {
-            value = evaluateStringExpression((String) value);
-            resourceMapNode.putResource(key, value);
-        }
-
-        /* If the value we've found in resourceMapNode is 
-	 * the expected type, then we're done.  If the expected
-         * type is primitive and the value is the corresponding
-         * object type then we're done too.  Otherwise, 
-	 * if it's a String, then try and convert the String
-	 * and replace the original resourceMapNode entry, 
-	 * otherwise return null.
+        long startTime = (statistics == null) ? 0L : System.nanoTime();
+        if (isExpression) {
+            sValue = evaluateStringExpression(key, sValue, snapshot,
+                    resolved);
+        }
+
+        /* If the (evaluated) String is the expected type then we're done,
+         * otherwise try and convert it.
          */
-        if (value != null) {
-            Class valueClass = value.getClass();
-            if (!type.isAssignableFrom(valueClass)) {
-                if (value instanceof String) {
-                    ResourceConverter stringConverter
-                            = ResourceConverter.forType(type);
-                    if (stringConverter != null) {
-                        String sValue = (String) value;
-                        try {
-                            value = stringConverter.parseString(sValue,
-                                    resourceMapNode);
-                            resourceMapNode.putResource(key, value);
-                        } catch (ResourceConverterException e) {
-                            String msg = "string conversion failed";
-                            LookupException lfe = new LookupException(msg, key,
-                                    type);
-                            lfe.initCause(e);
-                            throw lfe;
-                        }
-                    } else {
-                        String msg = "no StringConverter for required type";
-                        throw new LookupException(msg, key, type);
-                    }
+        if ((sValue == null) || type.isAssignableFrom(String.class)) {
+            value = sValue;
+            if (isExpression) {
+                convertedValues.put(key, type, value);
+                recordUsage(key, type);
+            }
+            if (statistics != null) {
+                if (isExpression) {
+                    statistics.conversion(key, type, System.nanoTime()
+                            - startTime);
                 } else {
-                    String msg = "named resource has wrong type";
-                    throw new LookupException(msg, key, type);
+                    statistics.hit(key);
                 }
             }
+            return value;
+        }
+        ResourceConverter stringConverter = ResourceConverter.forType(type);
+        if (stringConverter == null) {
+            String msg = "no StringConverter for required type";
+            throw new LookupException(msg, key, type);
+        }
+
+        /* Conversions are single-flight: if another thread is already
+         * converting key to type, wait for its result rather than parsing
+         * the same image or font again.
+         */
+        Conversion conversion = new Conversion();
+        Object started = convertedValues.start(key, type, conversion);
+        if (started != null) {
+            value = (started instanceof Conversion)
+                    ? ((Conversion) started).await(key, type) : started;
+            if (statistics != null) {
+                statistics.hit(key);
+            }
+            return (value == nullResource) ? null : value;
+        }
+        try {
+            value = stringConverter.parseString(sValue, resourceMapNode);
+        } catch (ResourceConverterException e) {
+            String msg = "string conversion failed";
+            LookupException lfe = new LookupException(msg, key, type);
+            lfe.initCause(e);
+            convertedValues.fail(key, type, conversion, lfe);
+            throw lfe;
+        } catch (RuntimeException | Error e) {
+            convertedValues.fail(key, type, conversion, e);
+            throw e;
+        }
+        convertedValues.end(key, type, conversion, value,
+                stringConverter instanceof ImageCacheConverter);
+        recordUsage(key, type);
+        if (statistics != null) {
+            statistics.conversion(key, type, System.nanoTime() - startTime);
         }
         return value;
     }
 
+    /* Adds key and type to the resource usage profile that the
+     * ResourceManager is recording for this chain, if any.  Only
+     * conversions are recorded, values that are already cached don't
+     * need to be preloaded, so cached lookups aren't slowed down.
+     */
+    private void recordUsage(String key, Class type) {
+        Set<String> usage = resourceUsage;
+        if (usage != null) {
+            usage.add(type.getName() + " " + key);
+        }
+    }
+
+    /* Called by ResourceManager#getResourceMap for the ResourceMaps it
+     * shares between chains.  The ResourceManager only refers to the key
+     * weakly, so this keeps the entry for this ResourceMap alive.
+     */
+    void setSharedKey(Object sharedKey) {
+        this.sharedKey = sharedKey;
+    }
+
+    /* Called by ResourceManager for the chains it creates while it's
+     * recording resource usage.  A ResourceMap can end more than one
+     * chain ID's chain, see ResourceManager#getSharedResourceMap, so
+     * if it's already recording, usage is ignored and the Set that's
+     * being recorded is returned, for the chain IDs to share.
+     */
+    synchronized Set<String> recordResourceUsage(Set<String> usage) {
+        if (resourceUsage == null) {
+            resourceUsage = usage;
+        }
+        return resourceUsage;
+    }
+
+    synchronized void stopRecordingResourceUsage() {
+        resourceUsage = null;
+    }
+
+    /* Keys whose ${} expressions are being evaluated by the current
+     * thread.  Catches reference cycles that span more than one
+     * ResourceMap, which can't be detected when the bundles are loaded.
+     */
+    private static final ThreadLocal<Set<String>> evaluatingKeys
+            = ThreadLocal.withInitial(HashSet::new);
+
     /* Given the following resources:
      * 
      * hello = Hello
@@ -661,41 +1538,105 @@ public class ResourceMap {
      * 
      * The value of evaluateStringExpression("${hello} ${place}")
      * would be "Hello World".  The value of ${null} is null.
+     *
+     * The expression is compiled once per snapshot, see ExpressionTemplate.
      */
-    private String evaluateStringExpression(String expr) {
-        if (expr.trim().equals("${null}")) {
-            return null;
+    private String evaluateStringExpression(String key, String expr,
+            BundlesSnapshot snapshot, ResolvedKeys resolved) {
+        if (snapshot.cyclicKeys.contains(key)) {
+            String msg = String.format("circular reference in \"%s\"", expr);
+            throw new LookupException(msg, key, String.class);
+        }
+        ExpressionTemplate template = snapshot.getTemplate(key, expr);
+        Set<String> evaluating = evaluatingKeys.get();
+        if (!evaluating.add(key)) {
+            String msg = String.format("circular reference in \"%s\"", expr);
+            throw new LookupException(msg, key, String.class);
+        }
+        // Recorded first, so that a value is never cached without them
+        resolved.expressionVariables.put(key, template.variables);
+        try {
+            return template.evaluate(this);
+        } finally {
+            evaluating.remove(key);
+        }
+    }
+
+    /* A ${key} expression that has been split into literal text and
+     * variable names.  For n variables there are n + 1 literals, the
+     * value is literals[0] + value(variables[0]) + literals[1] ...
+     * Escaped variables, "\${", are folded into the literal text.
+     */
+    private static final class ExpressionTemplate {
+
+        private static final ExpressionTemplate NULL_TEMPLATE
+                = new ExpressionTemplate("${null}", null, null);
+        private final String expression;
+        private final String[] literals;
+        private final String[] variables;
+
+        private ExpressionTemplate(String expression, String[] literals,
+                String[] variables) {
+            this.expression = expression;
+            this.literals = literals;
+            this.variables = (variables == null) ? new String[0] : variables;
         }
-        StringBuilder value = new StringBuilder();
-        int i0 = 0, i1 = 0;
-        while ((i1 = expr.indexOf("${", i0)) != -1) {
-            if ((i1 == 0) || ((i1 > 0) && (expr.charAt(i1 - 1) != '\\'))) {
-                int i2 = expr.indexOf("}", i1);
-                if ((i2 != -1) && (i2 > i1 + 2)) {
-                    String k = expr.substring(i1 + 2, i2);
-                    String v = getString(k);
-                    value.append(expr.substring(i0, i1));
-                    if (v != null) {
-                        value.append(v);
+
+        static ExpressionTemplate compile(String expr) {
+            if (expr.trim().equals("${null}")) {
+                return NULL_TEMPLATE;
+            }
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            int i0 = 0, i1 = 0;
+            while ((i1 = expr.indexOf("${", i0)) != -1) {
+                if ((i1 == 0) || ((i1 > 0) && (expr.charAt(i1 - 1) != '\\'))) {
+                    int i2 = expr.indexOf("}", i1);
+                    if ((i2 != -1) && (i2 > i1 + 2)) {
+                        literal.append(expr, i0, i1);
+                        literals.add(literal.toString());
+                        literal.setLength(0);
+                        variables.add(expr.substring(i1 + 2, i2));
+                        i0 = i2 + 1;  // skip trailing "}"
                     } else {
-                        String msg = String.format("no value for \"%s\" in \"%s"
-                                + "\"", k, expr);
-                        throw new LookupException(msg, k, String.class);
+                        String msg = String.format("no closing brace in \"%s\"",
+                                expr);
+                        throw new LookupException(msg, "<not found>",
+                                String.class);
                     }
-                    i0 = i2 + 1;  // skip trailing "}"
-                } else {
-                    String msg = String.format("no closing brace in \"%s\"",
-                            expr);
-                    throw new LookupException(msg, "<not found>", String.class);
+                } else {  // we've found an escaped variable - "\${"
+                    literal.append(expr, i0, i1 - 1);
+                    literal.append("${");
+                    i0 = i1 + 2; // skip past "${"
+                }
+            }
+            literal.append(expr, i0, expr.length());
+            literals.add(literal.toString());
+            return new ExpressionTemplate(expr,
+                    literals.toArray(new String[literals.size()]),
+                    variables.toArray(new String[variables.size()]));
+        }
+
+        /* Resolves each variable, as a String, relative to resourceMap.
+         */
+        String evaluate(ResourceMap resourceMap) {
+            if (literals == null) {
+                return null;
+            }
+            StringBuilder value = new StringBuilder(literals[0]);
+            for (int i = 0; i < variables.length; i++) {
+                String k = variables[i];
+                String v = resourceMap.getString(k);
+                if (v == null) {
+                    String msg = String.format("no value for \"%s\" in \"%s\"",
+                            k, expression);
+                    throw new LookupException(msg, k, String.class);
                 }
-            } else {  // we've found an escaped variable - "\${"
-                value.append(expr.substring(i0, i1 - 1));
-                value.append("${");
-                i0 = i1 + 2; // skip past "${"
+                value.append(v).append(literals[i + 1]);
             }
+            return value.toString();
         }
-        value.append(expr.substring(i0));
-        return value.toString();
     }
 
     /**
@@ -709,7 +1650,9 @@ public class ResourceMap {
      * <pre>
      * hello = Hello %s
      * </pre> then the value of <code>getString("hello", "World")</code> would
-     * be <code>"Hello World"</code>.
+     * be <code>"Hello World"</code>. Format strings are only parsed once per
+     * Locale, so formatting the same resource repeatedly, for example in a
+     * progress message, is cheap.
      *
      * @param key resource name
      * @param args
@@ -725,8 +1668,157 @@ public class ResourceMap {
         if (args.length == 0) {
             return (String) getObject(key, String.class);
         } else {
+            FormatTemplate template = getFormatTemplate(key);
+            return (template == null) ? null : template.format(args);
+        }
+    }
+
+    /* Returns the compiled form of the format string named key, or null.
+     * Like the other conversions of a resource, it's cached in the
+     * snapshot for the current Locale of the ResourceMap that defines key,
+     * or with the chain's expression values if it's a ${} expression.
+     */
+    private FormatTemplate getFormatTemplate(String key) {
+        checkNullKey(key);
+        ResolvedKeys resolved = getResolvedKeys();
+        ResourceMap resourceMapNode = resolveKey(resolved, key);
+        if (resourceMapNode == null) {
+            return null;
+        }
+        BundlesSnapshot snapshot = resourceMapNode.getBundlesSnapshot();
+        Object raw = resourceMapNode.getResource(key);
+        ConvertedValues convertedValues = ((raw instanceof String)
+                && ((String) raw).contains("${"))
+                ? resolved.expressionValues : snapshot.convertedValues;
+        Object template = convertedValues.get(key, FormatTemplate.class);
+        if (template == null) {
             String format = (String) getObject(key, String.class);
-            return (format == null) ? null : String.format(format, args);
+            template = (format == null) ? null : FormatTemplate.compile(format);
+            convertedValues.put(key, FormatTemplate.class, template);
+        }
+        return (template == nullResource) ? null : (FormatTemplate) template;
+    }
+
+    /* A String.format format string that's been split into literal text
+     * and format specifiers, so that formatting it again doesn't parse it
+     * again.  Plain %s specifiers, by far the most common kind, are
+     * formatted directly, the others are formatted one at a time with
+     * String.format.  Format strings that can't be split are left to
+     * String.format, which reports their errors.
+     */
+    private static final class FormatTemplate {
+
+        private static final Pattern specifierPattern = Pattern.compile(
+                "%(\\d+\\$)?([-#+ 0,(<]*)(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])");
+        private final String format;
+        private final Object[] segments;  // literal Strings and Specifiers
+
+        private FormatTemplate(String format, Object[] segments) {
+            this.format = format;
+            this.segments = segments;
+        }
+
+        /* One format specifier, with its argument index resolved. */
+        private static final class Specifier {
+
+            private final int argIndex;      // -1 if it takes no argument
+            private final String pattern;    // without an argument index
+            private final boolean isPlainString;
+
+            Specifier(int argIndex, String pattern, boolean isPlainString) {
+                this.argIndex = argIndex;
+                this.pattern = pattern;
+                this.isPlainString = isPlainString;
+            }
+        }
+
+        static FormatTemplate compile(String format) {
+            List<Object> segments = new ArrayList<>();
+            Matcher m = specifierPattern.matcher(format);
+            int ordinaryIndex = 0;
+            int lastIndex = -1;
+            int i = 0;
+            int j;
+            while ((j = format.indexOf('%', i)) != -1) {
+                if (j > i) {
+                    segments.add(format.substring(i, j));
+                }
+                m.region(j, format.length());
+                if (!m.lookingAt()) {
+                    return new FormatTemplate(format, null);
+                }
+                String explicitIndex = m.group(1);
+                String flags = m.group(2);
+                String width = m.group(3);
+                String precision = m.group(4);
+                String dateTime = m.group(5);
+                String conversion = m.group(6);
+                boolean isRelative = flags.indexOf('<') != -1;
+                flags = flags.replace("<", "");
+                String pattern = "%" + flags + ((width == null) ? "" : width)
+                        + ((precision == null) ? "" : precision)
+                        + ((dateTime == null) ? "" : dateTime) + conversion;
+                if (conversion.equals("%") || conversion.equals("n")) {
+                    if (pattern.equals("%%")) {
+                        segments.add("%");
+                    } else if (pattern.equals("%n")) {
+                        segments.add(System.lineSeparator());
+                    } else {
+                        segments.add(new Specifier(-1, pattern, false));
+                    }
+                } else {
+                    int argIndex;
+                    if (isRelative) {
+                        argIndex = lastIndex;
+                    } else if (explicitIndex != null) {
+                        argIndex = Integer.parseInt(explicitIndex.substring(0,
+                                explicitIndex.length() - 1)) - 1;
+                    } else {
+                        argIndex = ordinaryIndex++;
+                    }
+                    if (argIndex < 0) {
+                        return new FormatTemplate(format, null);
+                    }
+                    lastIndex = argIndex;
+                    segments.add(new Specifier(argIndex, pattern,
+                            pattern.equals("%s")));
+                }
+                i = m.end();
+            }
+            if (i < format.length()) {
+                segments.add(format.substring(i));
+            }
+            return new FormatTemplate(format, segments.toArray());
+        }
+
+        String format(Object... args) {
+            if (segments == null) {
+                return String.format(format, args);
+            }
+            StringBuilder sb = new StringBuilder(format.length() + 16
+                    * args.length);
+            for (Object segment : segments) {
+                if (segment instanceof String) {
+                    sb.append((String) segment);
+                    continue;
+                }
+                Specifier specifier = (Specifier) segment;
+                if (specifier.argIndex == -1) {
+                    sb.append(String.format(specifier.pattern));
+                    continue;
+                }
+                if (specifier.argIndex >= args.length) {
+                    throw new MissingFormatArgumentException(
+                            specifier.pattern);
+                }
+                Object arg = args[specifier.argIndex];
+                if (specifier.isPlainString && !(arg instanceof Formattable)) {
+                    sb.append(arg);
+                } else {
+                    sb.append(String.format(specifier.pattern, arg));
+                }
+            }
+            return sb.toString();
         }
     }
 
@@ -738,101 +1830,196 @@ public class ResourceMap {
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Boolean value of the resource named key
+     * @return the Boolean value of the resource named key
+     * @see #getObject
+     */
+    public final Boolean getBoolean(String key) {
+        return (Boolean) getObject(key, Boolean.class);
+    }
+
+    /**
+     * A convenience method that's shorthand for calling:
+     * <code>getObject(key, Integer.class)</code>.
+     *
+     * @param key the name of the resource
+     * @throws LookupException if an error occurs during lookup or string
+     * conversion
+     * @throws IllegalArgumentException if <code>key</code> is null
+     * @return the Integer value of the resource named key
+     * @see #getObject
+     */
+    public final Integer getInteger(String key) {
+        return (Integer) getObject(key, Integer.class);
+    }
+
+    /**
+     * A convenience method that's shorthand for calling:
+     * <code>getObject(key, Long.class)</code>.
+     *
+     * @param key the name of the resource
+     * @throws LookupException if an error occurs during lookup or string
+     * conversion
+     * @throws IllegalArgumentException if <code>key</code> is null
+     * @return the Long value of the resource named key
+     * @see #getObject
+     */
+    public final Long getLong(String key) {
+        return (Long) getObject(key, Long.class);
+    }
+
+    /**
+     * A convenience method that's shorthand for calling:
+     * <code>getObject(key, Short.class)</code>.
+     *
+     * @param key the name of the resource
+     * @throws LookupException if an error occurs during lookup or string
+     * conversion
+     * @throws IllegalArgumentException if <code>key</code> is null
+     * @return the Short value of the resource named key
+     * @see #getObject
+     */
+    public final Short getShort(String key) {
+        return (Short) getObject(key, Short.class);
+    }
+
+    /**
+     * A convenience method that's shorthand for calling:
+     * <code>getObject(key, Byte.class)</code>.
+     *
+     * @param key the name of the resource
+     * @throws LookupException if an error occurs during lookup or string
+     * conversion
+     * @throws IllegalArgumentException if <code>key</code> is null
+     * @return the Byte value of the resource named key
+     * @see #getObject
+     */
+    public final Byte getByte(String key) {
+        return (Byte) getObject(key, Byte.class);
+    }
+
+    /**
+     * A convenience method that's shorthand for calling:
+     * <code>getObject(key, Float.class)</code>.
+     *
+     * @param key the name of the resource
+     * @throws LookupException if an error occurs during lookup or string
+     * conversion
+     * @throws IllegalArgumentException if <code>key</code> is null
+     * @return the Float value of the resource named key
      * @see #getObject
      */
-    public final Boolean getBoolean(String key) {
-        return (Boolean) getObject(key, Boolean.class);
+    public final Float getFloat(String key) {
+        return (Float) getObject(key, Float.class);
     }
 
     /**
      * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Integer.class)</code>.
+     * <code>getObject(key, Double.class)</code>.
      *
      * @param key the name of the resource
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Integer value of the resource named key
+     * @return the Double value of the resource named key
      * @see #getObject
      */
-    public final Integer getInteger(String key) {
-        return (Integer) getObject(key, Integer.class);
+    public final Double getDouble(String key) {
+        return (Double) getObject(key, Double.class);
     }
 
     /**
-     * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Long.class)</code>.
+     * Returns the boolean value of the resource named key, or
+     * <code>defaultValue</code> if there's no such resource or its value is
+     * null. The value is unboxed from the cached conversion, so repeated
+     * calls, for example from paint or layout code, don't allocate.
      *
      * @param key the name of the resource
+     * @param defaultValue the value to return if the resource isn't defined
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Long value of the resource named key
-     * @see #getObject
+     * @return the boolean value of the resource named key
+     * @see #getBoolean(java.lang.String)
      */
-    public final Long getLong(String key) {
-        return (Long) getObject(key, Long.class);
+    public final boolean getBooleanValue(String key, boolean defaultValue) {
+        Boolean value = (Boolean) getObject(key, Boolean.class);
+        return (value == null) ? defaultValue : value;
     }
 
     /**
-     * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Short.class)</code>.
+     * Returns the int value of the resource named key, or
+     * <code>defaultValue</code> if there's no such resource or its value is
+     * null. The value is unboxed from the cached conversion, so repeated
+     * calls, for example from paint or layout code, don't allocate.
      *
      * @param key the name of the resource
+     * @param defaultValue the value to return if the resource isn't defined
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Short value of the resource named key
-     * @see #getObject
+     * @return the int value of the resource named key
+     * @see #getInteger(java.lang.String)
      */
-    public final Short getShort(String key) {
-        return (Short) getObject(key, Short.class);
+    public final int getInt(String key, int defaultValue) {
+        Integer value = (Integer) getObject(key, Integer.class);
+        return (value == null) ? defaultValue : value;
     }
 
     /**
-     * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Byte.class)</code>.
+     * Returns the long value of the resource named key, or
+     * <code>defaultValue</code> if there's no such resource or its value is
+     * null. The value is unboxed from the cached conversion, so repeated
+     * calls, for example from paint or layout code, don't allocate.
      *
      * @param key the name of the resource
+     * @param defaultValue the value to return if the resource isn't defined
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Byte value of the resource named key
-     * @see #getObject
+     * @return the long value of the resource named key
+     * @see #getLong(java.lang.String)
      */
-    public final Byte getByte(String key) {
-        return (Byte) getObject(key, Byte.class);
+    public final long getLong(String key, long defaultValue) {
+        Long value = (Long) getObject(key, Long.class);
+        return (value == null) ? defaultValue : value;
     }
 
     /**
-     * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Float.class)</code>.
+     * Returns the float value of the resource named key, or
+     * <code>defaultValue</code> if there's no such resource or its value is
+     * null. The value is unboxed from the cached conversion, so repeated
+     * calls, for example from paint or layout code, don't allocate.
      *
      * @param key the name of the resource
+     * @param defaultValue the value to return if the resource isn't defined
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Float value of the resource named key
-     * @see #getObject
+     * @return the float value of the resource named key
+     * @see #getFloat(java.lang.String)
      */
-    public final Float getFloat(String key) {
-        return (Float) getObject(key, Float.class);
+    public final float getFloat(String key, float defaultValue) {
+        Float value = (Float) getObject(key, Float.class);
+        return (value == null) ? defaultValue : value;
     }
 
     /**
-     * A convenience method that's shorthand for calling:
-     * <code>getObject(key, Double.class)</code>.
+     * Returns the double value of the resource named key, or
+     * <code>defaultValue</code> if there's no such resource or its value is
+     * null. The value is unboxed from the cached conversion, so repeated
+     * calls, for example from paint or layout code, don't allocate.
      *
      * @param key the name of the resource
+     * @param defaultValue the value to return if the resource isn't defined
      * @throws LookupException if an error occurs during lookup or string
      * conversion
      * @throws IllegalArgumentException if <code>key</code> is null
-     * @return the Double value of the resource named key
-     * @see #getObject
+     * @return the double value of the resource named key
+     * @see #getDouble(java.lang.String)
      */
-    public final Double getDouble(String key) {
-        return (Double) getObject(key, Double.class);
+    public final double getDouble(String key, double defaultValue) {
+        Double value = (Double) getObject(key, Double.class);
+        return (value == null) ? defaultValue : value;
     }
 
     /**
@@ -879,7 +2066,16 @@ public class ResourceMap {
      * "myOpenIcon.png"; URL url =
      * myResourceMap.getClassLoader().getResource(filename); new
      * ImageIcon(iconURL); ```
-     *
+     * <p>
+     * Images are loaded through the shared {@link ImageCache}, so ResourceMaps
+     * that refer to the same image file share one ImageIcon. The ImageIcon
+     * that's returned may be shared with every other caller that looks up the
+     * same image: it must not be modified, for example with
+     * <code>setImage</code> or <code>setDescription</code>. Copy it, e.g.
+     * <code>new ImageIcon(icon.getImage())</code>, to change it. If the
+     * <code>Application.asyncIcons</code> resource is true, images that haven't
+     * been loaded yet are returned as {@link AsyncImageIcon}s, which are
+     * decoded in the background.</p>
      *
      * @param key the name of the resource
      * @return the ImageIcon value of the resource named key
@@ -1053,35 +2249,169 @@ public class ResourceMap {
         }
     }
 
-    private void injectComponentProperty(Component component,
-            PropertyDescriptor pd, String key) {
-        Method setter = pd.getWriteMethod();
-        Class type = pd.getPropertyType();
-        if ((setter != null) && (type != null) && containsKey(key)) {
-            Object value = getObject(key, type);
-            String propertyName = pd.getName();
+    /* A componentName.propertyName resource key, split at its last ".".
+     */
+    private static final class ComponentPropertyKey {
+
+        private final String key;
+        private final String propertyName;
+
+        ComponentPropertyKey(String key, String propertyName) {
+            this.key = key;
+            this.propertyName = propertyName;
+        }
+    }
+
+    /* Maps each component name that appears in a componentName.propertyName
+     * resource key to its keys.  An index is built from one keySet() and
+     * is replaced when keySet() returns a different Set, so injecting a
+     * component costs time proportional to the number of keys that name it
+     * rather than the size of the whole ResourceMap chain.  The indexes
+     * are kept per Locale, so switching back to a Locale reuses its index
+     * and the injection plans in it rather than introspecting again.
+     *
+     * The injection plans are kept per component class in a ClassValue,
+     * because they refer to the class's setters: a Map keyed by the class
+     * would keep the class, and its ClassLoader, loaded for as long as the
+     * index lives.
+     */
+    private static final class ComponentKeyIndex {
+
+        private final Set<String> keys;
+        private final Map<String, List<ComponentPropertyKey>> componentKeys;
+        private final ClassValue<ConcurrentMap<String, InjectionPlan>> plans
+                = new ClassValue<ConcurrentMap<String, InjectionPlan>>() {
+            @Override
+            protected ConcurrentMap<String, InjectionPlan> computeValue(
+                    Class<?> componentType) {
+                return new ConcurrentHashMap<>(4);
+            }
+        };
+
+        ComponentKeyIndex(Set<String> keys) {
+            this.keys = keys;
+            this.componentKeys = new HashMap<>();
+            for (String key : keys) {
+                int i = key.lastIndexOf(".");
+                if (i != -1) {
+                    componentKeys.computeIfAbsent(key.substring(0, i),
+                            k -> new ArrayList<>(4)).add(
+                                    new ComponentPropertyKey(key,
+                                            key.substring(i + 1)));
+                }
+            }
+        }
+    }
+
+    private final ConcurrentMap<Locale, ComponentKeyIndex> componentKeyIndexes
+            = new ConcurrentHashMap<>();
+
+    private ComponentKeyIndex getComponentKeyIndex() {
+        Locale locale = Locale.getDefault();
+        Set<String> keys = keySet();
+        ComponentKeyIndex index = componentKeyIndexes.get(locale);
+        if ((index == null) || (index.keys != keys)) {
+            index = new ComponentKeyIndex(keys);
+            componentKeyIndexes.put(locale, index);
+        }
+        return index;
+    }
+
+    /* One resolved componentName.propertyName resource: the property's
+     * setter and the converted value to pass it.  Text properties of
+     * buttons and labels are applied with MnemonicText instead.
+     */
+    private static final class PropertyInjection {
+
+        private final String key;
+        private final String propertyName;
+        private final Method setter;
+        private final MethodHandle setterHandle;
+        private final Object value;
+        private final MnemonicText mnemonicText;
+
+        PropertyInjection(String key, PropertyDescriptor pd, Object value,
+                MnemonicText mnemonicText) {
+            this.key = key;
+            this.propertyName = pd.getName();
+            this.setter = pd.getWriteMethod();
+            this.value = value;
+            this.mnemonicText = mnemonicText;
+            MethodHandle mh = null;
+            if (mnemonicText == null) {
+                try {
+                    mh = MethodHandles.publicLookup().unreflect(setter);
+                } catch (IllegalAccessException e) {
+                    // fall back to Method.invoke, see inject()
+                }
+            }
+            this.setterHandle = mh;
+        }
+
+        void inject(Component component) {
             try {
-                // Note: this could be generalized, we could delegate 
-                // to a component property injector.
-                if ("text".equals(propertyName)
-                        && (component instanceof AbstractButton)) {
-                    MnemonicText.configure(component, (String) value);
-                } else if ("text".equals(propertyName)
-                        && (component instanceof JLabel)) {
-                    MnemonicText.configure(component, (String) value);
+                if (mnemonicText != null) {
+                    mnemonicText.configure(component);
+                } else if (setterHandle != null) {
+                    setterHandle.invoke(component, value);
                 } else {
                     setter.invoke(component, value);
                 }
-            } catch (IllegalAccessException
-                    | IllegalArgumentException
-                    | InvocationTargetException e) {
-                String pdn = pd.getName();
+            } catch (Throwable e) {
                 String msg = "property setter failed";
                 RuntimeException re = new PropertyInjectionException(msg, key,
-                        component, pdn);
+                        component, propertyName);
                 re.initCause(e);
                 throw re;
             }
+        }
+    }
+
+    /* The property injections for one component class and name, along
+     * with the bundles snapshots of each ResourceMap in the chain that
+     * the values were resolved from.  A plan is replayed as long as none
+     * of those snapshots has been replaced, i.e. until the Locale changes
+     * or a resource is put.
+     */
+    private static final class InjectionPlan {
+
+        private final ChainSnapshots chain;
+        private final PropertyInjection[] injections;
+
+        InjectionPlan(ChainSnapshots chain,
+                List<PropertyInjection> injections) {
+            this.chain = chain;
+            this.injections = injections.toArray(
+                    new PropertyInjection[injections.size()]);
+        }
+
+        boolean isCurrent(ResourceMap resourceMap) {
+            return chain.isCurrent(resourceMap);
+        }
+
+        void inject(Component component) {
+            for (PropertyInjection injection : injections) {
+                injection.inject(component);
+            }
+        }
+    }
+
+    private PropertyInjection createPropertyInjection(Component component,
+            PropertyDescriptor pd, String key) {
+        Method setter = pd.getWriteMethod();
+        Class type = pd.getPropertyType();
+        if ((setter != null) && (type != null) && containsKey(key)) {
+            Object value = getObject(key, type);
+            String propertyName = pd.getName();
+            // Note: this could be generalized, we could delegate 
+            // to a component property injector.
+            MnemonicText mnemonicText = null;
+            if ("text".equals(propertyName)
+                    && ((component instanceof AbstractButton)
+                    || (component instanceof JLabel))) {
+                mnemonicText = MnemonicText.parse((String) value);
+            }
+            return new PropertyInjection(key, pd, value, mnemonicText);
         } else if (type != null) {
             String pdn = pd.getName();
             String msg = "no value specified for resource";
@@ -1091,6 +2421,79 @@ public class ResourceMap {
             String msg = "can't set read-only property";
             throw new PropertyInjectionException(msg, key, component, pdn);
         }
+        // A property that has a setter but no type, e.g. an indexed one
+        return null;
+    }
+
+    /* Introspects the component's class and resolves the value of each
+     * of its componentName.propertyName resources.
+     */
+    private InjectionPlan createInjectionPlan(Component component,
+            String componentName, List<ComponentPropertyKey> propertyKeys) {
+        ChainSnapshots chain = new ChainSnapshots(this);
+        BeanInfo beanInfo = null;
+        try {
+            beanInfo = Introspector.getBeanInfo(component.getClass());
+        } catch (IntrospectionException e) {
+            String msg = "introspection failed";
+            RuntimeException re = new PropertyInjectionException(msg, null,
+                    component, null);
+            re.initCause(e);
+            throw re;
+        }
+        List<PropertyInjection> injections = new ArrayList<>();
+        PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
+        if ((pds != null) && (pds.length > 0)) {
+            Map<String, PropertyDescriptor> pdMap = new HashMap<>();
+            for (PropertyDescriptor pd : pds) {
+                pdMap.putIfAbsent(pd.getName(), pd);
+            }
+            for (ComponentPropertyKey propertyKey : propertyKeys) {
+                String key = propertyKey.key;
+                String propertyName = propertyKey.propertyName;
+                if (propertyName.isEmpty()) {
+                    /* key has no property name suffix, e.g. 
+                     * "myComponentName."
+                     * This is probably a mistake.
+                     */
+                    String msg = "component resource lacks property "
+                            + "name suffix";
+                    logger.warning(msg);
+                    continue;
+                }
+                PropertyDescriptor pd = pdMap.get(propertyName);
+                PropertyInjection injection = (pd == null) ? null
+                        : createPropertyInjection(component, pd, key);
+                if (injection != null) {
+                    injections.add(injection);
+                } else if (pd == null) {
+                    String msg = String.format(
+                            "[resource %s] component named %s doesn't have "
+                            + "a property named %s",
+                            key, componentName, propertyName);
+                    logger.warning(msg);
+                }
+            }
+        }
+        return new InjectionPlan(chain, injections);
+    }
+
+    /* Injection plans are cached per component class and name, so that
+     * repeatedly injecting the same kind of form, a dialog for example,
+     * only introspects and converts resource values the first time.
+     * Returns null if there's no plan for the component yet, or if it's
+     * out of date.
+     */
+    private InjectionPlan getCachedInjectionPlan(ComponentKeyIndex index,
+            Component component, String componentName) {
+        InjectionPlan plan = index.plans.get(component.getClass()).get(
+                componentName);
+        return ((plan != null) && plan.isCurrent(this)) ? plan : null;
+    }
+
+    private void putCachedInjectionPlan(ComponentKeyIndex index,
+            Component component, String componentName, InjectionPlan plan) {
+        index.plans.get(component.getClass()).put(componentName, plan);
     }
 
     private void injectComponentProperties(Component component) {
@@ -1099,63 +2502,20 @@ public class ResourceMap {
             /* Optimization: punt early if componentName doesn't 
 	     * appear in any componentName.propertyName resource keys
              */
-            boolean matchingResourceFound = false;
-            for (String key : keySet()) {
-                int i = key.lastIndexOf(".");
-                if ((i != -1) && componentName.equals(key.substring(0, i))) {
-                    matchingResourceFound = true;
-                    break;
-                }
-            }
-            if (!matchingResourceFound) {
+            ComponentKeyIndex index = getComponentKeyIndex();
+            List<ComponentPropertyKey> propertyKeys
+                    = index.componentKeys.get(componentName);
+            if (propertyKeys == null) {
                 return;
             }
-            BeanInfo beanInfo = null;
-            try {
-                beanInfo = Introspector.getBeanInfo(component.getClass());
-            } catch (IntrospectionException e) {
-                String msg = "introspection failed";
-                RuntimeException re = new PropertyInjectionException(msg, null,
-                        component, null);
-                re.initCause(e);
-                throw re;
-            }
-            PropertyDescriptor[] pds = beanInfo.getPropertyDescriptors();
-            if ((pds != null) && (pds.length > 0)) {
-                for (String key : keySet()) {
-                    int i = key.lastIndexOf(".");
-                    String keyComponentName = (i == -1) ? null
-                            : key.substring(0, i);
-                    if (componentName.equals(keyComponentName)) {
-                        if ((i + 1) == key.length()) {
-                            /* key has no property name suffix, e.g. 
-                             * "myComponentName."
-			     * This is probably a mistake.
-                             */
-                            String msg = "component resource lacks property "
-                                    + "name suffix";
-                            logger.warning(msg);
-                            break;
-                        }
-                        String propertyName = key.substring(i + 1);
-                        boolean matchingPropertyFound = false;
-                        for (PropertyDescriptor pd : pds) {
-                            if (pd.getName().equals(propertyName)) {
-                                injectComponentProperty(component, pd, key);
-                                matchingPropertyFound = true;
-                                break;
-                            }
-                        }
-                        if (!matchingPropertyFound) {
-                            String msg = String.format(
-                                    "[resource %s] component named %s doesn't have "
-                                    + "a property named %s",
-                                    key, componentName, propertyName);
-                            logger.warning(msg);
-                        }
-                    }
-                }
+            InjectionPlan plan = getCachedInjectionPlan(index, component,
+                    componentName);
+            if (plan == null) {
+                plan = createInjectionPlan(component, componentName,
+                        propertyKeys);
+                putCachedInjectionPlan(index, component, componentName, plan);
             }
+            plan.inject(component);
         }
     }
 
@@ -1183,7 +2543,10 @@ public class ResourceMap {
      * <p>
      * This method calls {@link #getObject} to look up resources and it uses
      * {@link Introspector#getBeanInfo} to find the target component's
-     * properties.</p>
+     * properties. The resolved setters and values are cached per component
+     * class and name, so injecting another component of the same class with the
+     * same name doesn't repeat that work unless the resources have changed, for
+     * example because the default Locale changed.</p>
      * <p>
      * If target is null an IllegalArgumentException is thrown. If a resource is
      * found that matches the target component's name but the corresponding
@@ -1214,6 +2577,10 @@ public class ResourceMap {
     /**
      * Applies {@link #injectComponent} to each Component in the hierarchy with
      * root <code>root</code>.
+     * <p>
+     * The root is remembered, weakly, so that the hierarchy can be injected
+     * again when the application switches to another Locale with
+     * {@link ResourceManager#setLocale(java.util.Locale)}.</p>
      *
      * @param root the root of the component hierarchy
      *
@@ -1225,6 +2592,63 @@ public class ResourceMap {
      */
     public void injectComponents(Component root) {
         injectComponent(root);
+        /* The children are injected by calling injectComponents
+         * recursively, so subclasses that override it see every
+         * component.  Only the outermost call's root is remembered.
+         */
+        Set<ResourceMap> injecting = injectingTrees.get();
+        boolean isRoot = injecting.add(this);
+        if (isRoot) {
+            rememberInjectedRoot(root);
+        }
+        try {
+            for (Component child : injectableChildren(root)) {
+                injectComponents(child);
+            }
+        } finally {
+            if (isRoot) {
+                injecting.remove(this);
+            }
+        }
+    }
+
+    /* The ResourceMaps whose injectComponents is walking a component
+     * hierarchy on the current thread.
+     */
+    private static final ThreadLocal<Set<ResourceMap>> injectingTrees
+            = ThreadLocal.withInitial(HashSet::new);
+
+    private void rememberInjectedRoot(Component root) {
+        synchronized (injectedRoots) {
+            injectedRoots.add(root);
+        }
+    }
+
+    /* Injects the resources for the current default Locale into every
+     * component hierarchy that injectComponents has been applied to and
+     * that's still reachable.  Called by ResourceManager#setLocale.
+     */
+    void reinjectComponents() {
+        List<Component> roots;
+        synchronized (injectedRoots) {
+            roots = new ArrayList<>(injectedRoots);
+        }
+        for (Component root : roots) {
+            injectComponents(root);
+        }
+    }
+
+    /* Loads all of the ResourceBundles of every ResourceMap in the chain
+     * for the current default Locale.  Called by
+     * ResourceManager#preloadResourceMaps, typically on a background thread.
+     */
+    void preload() {
+        for (ResourceMap rm = this; rm != null; rm = rm.getParent()) {
+            rm.getBundlesMap();
+        }
+    }
+
+    private static Component[] injectableChildren(Component root) {
         if (root instanceof JMenu) {
             /* Warning: we're bypassing the popupMenu here because
 	     * JMenu#getPopupMenu creates it; doesn't seem right
@@ -1232,15 +2656,113 @@ public class ResourceMap {
 	     * means that attempts to inject the popup menu's 
 	     * "label" property will fail.
              */
-            JMenu menu = (JMenu) root;
-            for (Component child : menu.getMenuComponents()) {
-                injectComponents(child);
-            }
+            return ((JMenu) root).getMenuComponents();
         } else if (root instanceof Container) {
-            Container container = (Container) root;
-            for (Component child : container.getComponents()) {
-                injectComponents(child);
+            return ((Container) root).getComponents();
+        } else {
+            return new Component[0];
+        }
+    }
+
+    /**
+     * A variant of {@link #injectComponents(java.awt.Component)} that keeps
+     * the event dispatching thread responsive while the resources for a large
+     * component hierarchy are loaded.
+     * <p>
+     * The hierarchy with root <code>root</code> is walked on the calling
+     * thread, which should be the event dispatching thread. The resources for
+     * each named component are then looked up and converted on
+     * <code>executor</code>, one task per distinct component class and name,
+     * so that expensive conversions like icon and image loading run in
+     * parallel and off the event dispatching thread. Finally, all of the
+     * properties are set in a single batch on the event dispatching thread, in
+     * the same order <code>injectComponents</code> would set them.</p>
+     * <p>
+     * Lookup, conversion, and injection failures complete the returned future
+     * exceptionally. The cause of the <code>CompletionException</code> is the
+     * {@link LookupException} or {@link PropertyInjectionException} that
+     * <code>injectComponents</code> would have thrown. If any lookup fails, no
+     * properties are set.</p>
+     *
+     * @param root the root of the component hierarchy
+     * @param executor runs the resource lookups, for example a thread pool
+     * @return a future that completes, on the event dispatching thread, once
+     * all of the properties have been set
+     *
+     * @throws IllegalArgumentException if root or executor is null
+     *
+     * @see #injectComponents(java.awt.Component)
+     */
+    public CompletableFuture<Void> injectComponentsInBackground(Component root,
+            Executor executor) {
+        if (root == null) {
+            throw new IllegalArgumentException("null target");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("null executor");
+        }
+        rememberInjectedRoot(root);
+        ComponentKeyIndex index = getComponentKeyIndex();
+        List<Component> components = new ArrayList<>();
+        List<String> componentNames = new ArrayList<>();
+        collectNamedComponents(root, index, components, componentNames);
+
+        /* Components with the same class and name share one plan, only
+         * plans that aren't already cached are resolved on the executor.
+         */
+        Map<Class, Map<String, CompletableFuture<InjectionPlan>>> pending
+                = new HashMap<>();
+        List<CompletableFuture<InjectionPlan>> plans = new ArrayList<>();
+        for (int i = 0; i < components.size(); i++) {
+            Component component = components.get(i);
+            String componentName = componentNames.get(i);
+            Map<String, CompletableFuture<InjectionPlan>> classPending
+                    = pending.computeIfAbsent(component.getClass(),
+                            c -> new HashMap<>());
+            CompletableFuture<InjectionPlan> plan
+                    = classPending.get(componentName);
+            if (plan == null) {
+                InjectionPlan cachedPlan = getCachedInjectionPlan(index,
+                        component, componentName);
+                if (cachedPlan != null) {
+                    plan = CompletableFuture.completedFuture(cachedPlan);
+                } else {
+                    List<ComponentPropertyKey> propertyKeys
+                            = index.componentKeys.get(componentName);
+                    plan = CompletableFuture.supplyAsync(() -> {
+                        InjectionPlan newPlan = createInjectionPlan(component,
+                                componentName, propertyKeys);
+                        putCachedInjectionPlan(index, component,
+                                componentName, newPlan);
+                        return newPlan;
+                    }, executor);
+                }
+                classPending.put(componentName, plan);
+            }
+            plans.add(plan);
+        }
+        CompletableFuture<?>[] allPlans = plans.toArray(
+                new CompletableFuture<?>[plans.size()]);
+        return CompletableFuture.allOf(allPlans).thenRunAsync(() -> {
+            for (int i = 0; i < components.size(); i++) {
+                plans.get(i).join().inject(components.get(i));
             }
+        }, SwingUtilities::invokeLater);
+    }
+
+    /* Collects, in injectComponents order, the components in the hierarchy
+     * whose names appear in componentName.propertyName resource keys.
+     */
+    private void collectNamedComponents(Component root, ComponentKeyIndex index,
+            List<Component> components, List<String> componentNames) {
+        String componentName = root.getName();
+        if ((componentName != null)
+                && index.componentKeys.containsKey(componentName)) {
+            components.add(root);
+            componentNames.add(componentName);
+        }
+        for (Component child : injectableChildren(root)) {
+            collectNamedComponents(child, index, components, componentNames);
         }
     }
 
@@ -1303,41 +2825,135 @@ public class ResourceMap {
         }
     }
 
+    /* A field with a @Resource annotation and the name of the resource
+     * that's injected into it.
+     */
+    private static final class ResourceField {
+
+        private final Field field;
+        private final String key;
+
+        ResourceField(Field field, String key) {
+            this.field = field;
+            this.key = key;
+        }
+    }
+
+    /* The @Resource fields of each class, found once per class rather
+     * than once per injectFields call.
+     */
+    private static final ClassValue<ResourceField[]> resourceFields
+            = new ClassValue<ResourceField[]>() {
+        @Override
+        protected ResourceField[] computeValue(Class<?> targetType) {
+            String keyPrefix = targetType.getSimpleName() + ".";
+            List<ResourceField> fields = new ArrayList<>();
+            for (Field field : targetType.getDeclaredFields()) {
+                Resource resource = field.getAnnotation(Resource.class);
+                if (resource != null) {
+                    String rKey = resource.key();
+                    String key = (rKey.length() > 0) ? rKey : keyPrefix
+                            + field.getName();
+                    fields.add(new ResourceField(field, key));
+                }
+            }
+            return fields.toArray(new ResourceField[fields.size()]);
+        }
+    };
+
+    /* One name[index] resource key. */
+    private static final class ArrayElementKey {
+
+        private final String key;
+        private final int index;
+
+        ArrayElementKey(String key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+    }
+
+    /* Maps each array name that appears in a name[index] resource key to
+     * its element keys.  Like ComponentKeyIndex, an index is built from
+     * one keySet(), is kept per Locale, and is replaced when keySet()
+     * returns a different Set.
+     */
+    private static final class ArrayKeyIndex {
+
+        private final Set<String> keys;
+        private final Map<String, List<ArrayElementKey>> arrayKeys;
+
+        ArrayKeyIndex(Set<String> keys) {
+            this.keys = keys;
+            this.arrayKeys = new HashMap<>();
+            for (String key : keys) {
+                int last = key.length() - 1;
+                int i = key.lastIndexOf('[');
+                if ((i < 1) || (i == last - 1) || (key.charAt(last) != ']')) {
+                    continue;
+                }
+                try {
+                    int index = Integer.parseInt(key.substring(i + 1, last));
+                    if (index >= 0) {
+                        arrayKeys.computeIfAbsent(key.substring(0, i),
+                                k -> new ArrayList<>(4)).add(
+                                        new ArrayElementKey(key, index));
+                    }
+                } catch (NumberFormatException ignore) {
+                    // not an array element key, e.g. "Foo.bar[x]"
+                }
+            }
+        }
+
+        List<ArrayElementKey> get(String arrayKey) {
+            List<ArrayElementKey> elementKeys = arrayKeys.get(arrayKey);
+            return (elementKeys == null) ? Collections.emptyList()
+                    : elementKeys;
+        }
+    }
+
+    private final ConcurrentMap<Locale, ArrayKeyIndex> arrayKeyIndexes
+            = new ConcurrentHashMap<>();
+
+    private ArrayKeyIndex getArrayKeyIndex() {
+        Locale locale = Locale.getDefault();
+        Set<String> keys = keySet();
+        ArrayKeyIndex index = arrayKeyIndexes.get(locale);
+        if ((index == null) || (index.keys != keys)) {
+            index = new ArrayKeyIndex(keys);
+            arrayKeyIndexes.put(locale, index);
+        }
+        return index;
+    }
+
     private void injectField(Field field, Object target, String key) {
         Class type = field.getType();
         if (type.isArray()) {
             type = type.getComponentType();
-            Pattern p = Pattern.compile(key + "\\[([\\d]+)\\]");  // matches key[12]
-            List<String> arrayKeys = new ArrayList<>();
-            for (String arrayElementKey : keySet()) {
-                Matcher m = p.matcher(arrayElementKey);
-                if (m.matches()) {
-                    /* field's value is an array, arrayElementKey is a resource 
-		     * name of the form "MyClass.myArray[12]" and m.group(1) 
-		     * matches the array index.  Set the index element 
-		     * of the field's array to the value of the resource.
-                     */
-                    Object value = getObject(arrayElementKey, type);
-                    if (!field.isAccessible()) {
-                        field.setAccessible(true);
-                    }
-                    try {
-                        int index = Integer.parseInt(m.group(1));
-                        Array.set(field.get(target), index, value);
-                    } /* Array.set throws IllegalArgumentException, 
-                     *      ArrayIndexOutOfBoundsException
-		     * field.get throws IllegalAccessException(Checked), 
-                     *      IllegalArgumentException
-		     * Integer.parseInt throws NumberFormatException (Checked)
-                     */ catch (ArrayIndexOutOfBoundsException
-                            | IllegalAccessException
-                            | IllegalArgumentException e) {
-                        String msg = "unable to set array element";
-                        InjectFieldException ife = new InjectFieldException(msg,
-                                field, target, key);
-                        ife.initCause(e);
-                        throw ife;
-                    }
+            for (ArrayElementKey elementKey : getArrayKeyIndex().get(key)) {
+                /* field's value is an array, elementKey.key is a resource
+                 * name of the form "MyClass.myArray[12]" and elementKey.index
+                 * is the array index.  Set the index element of the field's
+                 * array to the value of the resource.
+                 */
+                Object value = getObject(elementKey.key, type);
+                if (!field.isAccessible()) {
+                    field.setAccessible(true);
+                }
+                try {
+                    Array.set(field.get(target), elementKey.index, value);
+                } /* Array.set throws IllegalArgumentException, 
+                 *      ArrayIndexOutOfBoundsException
+                 * field.get throws IllegalAccessException(Checked), 
+                 *      IllegalArgumentException
+                 */ catch (ArrayIndexOutOfBoundsException
+                        | IllegalAccessException
+                        | IllegalArgumentException e) {
+                    String msg = "unable to set array element";
+                    InjectFieldException ife = new InjectFieldException(msg,
+                            field, target, key);
+                    ife.initCause(e);
+                    throw ife;
                 }
             }
         } else {  // field is not an array
@@ -1405,15 +3021,8 @@ public class ResourceMap {
         if (targetType.isArray()) {
             throw new IllegalArgumentException("array target");
         }
-        String keyPrefix = targetType.getSimpleName() + ".";
-        for (Field field : targetType.getDeclaredFields()) {
-            Resource resource = field.getAnnotation(Resource.class);
-            if (resource != null) {
-                String rKey = resource.key();
-                String key = (rKey.length() > 0) ? rKey : keyPrefix
-                        + field.getName();
-                injectField(field, target, key);
-            }
+        for (ResourceField resourceField : resourceFields.get(targetType)) {
+            injectField(resourceField.field, target, resourceField.key);
         }
     }
 
@@ -1453,7 +3062,7 @@ public class ResourceMap {
         return rPath;
     }
 
-    private static ImageIcon loadImageIcon(String s, ResourceMap resourceMap)
+    private static URL imageURL(String s, ResourceMap resourceMap)
             throws ResourceConverterException {
         String rPath = resourcePath(s, resourceMap);
         if (rPath == null) {
@@ -1462,13 +3071,19 @@ public class ResourceMap {
         }
         URL url = resourceMap.getClassLoader().getResource(rPath);
         if (url != null) {
-            return new ImageIcon(url);
+            return url;
         } else {
             String msg = String.format("couldn't find Icon resource \"%s\"", s);
             throw new ResourceConverterException(msg, s);
         }
     }
 
+    private static ImageIcon loadImageIcon(String s, ResourceMap resourceMap)
+            throws ResourceConverterException {
+        return ImageCache.getSharedInstance().getImageIcon(imageURL(s,
+                resourceMap));
+    }
+
     private static class FontStringConverter extends ResourceConverter {
 
         FontStringConverter() {
@@ -1556,16 +3171,47 @@ public class ResourceMap {
         }
     }
 
-    private static class IconStringConverter extends ResourceConverter {
+    /* The converters whose values are cached by the shared ImageCache.
+     * ResourceMaps only refer to their values weakly, so that the
+     * ImageCache's byte budget bounds the memory used by the images
+     * that the application no longer uses.
+     */
+    private static abstract class ImageCacheConverter
+            extends ResourceConverter {
+
+        ImageCacheConverter(Class type) {
+            super(type);
+        }
+    }
+
+    /* Set by Application#create from the Application.asyncIcons
+     * resource, rather than looked up by every Icon conversion.
+     */
+    private static volatile boolean asyncIcons = false;
+
+    static void setAsyncIcons(boolean asyncIcons) {
+        ResourceMap.asyncIcons = asyncIcons;
+    }
+
+    private static class IconStringConverter extends ImageCacheConverter {
 
         IconStringConverter() {
             super(Icon.class);
         }
 
+        /* If asyncIcons is true, images that haven't been loaded yet
+         * are decoded in the background.
+         */
         @Override
         public Object parseString(String s, ResourceMap resourceMap)
                 throws ResourceConverterException {
-            return loadImageIcon(s, resourceMap);
+            if (!asyncIcons) {
+                return loadImageIcon(s, resourceMap);
+            }
+            URL url = imageURL(s, resourceMap);
+            ImageIcon icon = ImageCache.getSharedInstance().getCachedImageIcon(
+                    url);
+            return (icon != null) ? icon : new AsyncImageIcon(url);
         }
 
         @Override
@@ -1575,7 +3221,7 @@ public class ResourceMap {
         }
     }
 
-    private static class ImageStringConverter extends ResourceConverter {
+    private static class ImageStringConverter extends ImageCacheConverter {
 
         ImageStringConverter() {
             super(Image.class);
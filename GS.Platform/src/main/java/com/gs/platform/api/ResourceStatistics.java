@@ -0,0 +1,396 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceStatistics.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 2:34:48 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Statistics about {@link ResourceMap#getObject(java.lang.String,
+ * java.lang.Class) resource lookups}: how often each key is looked up, how
+ * often lookups miss, and how much time is spent evaluating and converting
+ * resource strings, per key and per {@link ResourceConverter} type.
+ * <p>
+ * Statistics are disabled by default, and then they cost a ResourceMap lookup
+ * no more than reading one field. They're enabled with
+ * {@link #setEnabled(boolean) setEnabled(true)}, or at startup by setting the
+ * {@value #ENABLED_PROPERTY} system property to true. While they're enabled,
+ * the statistics are available through JMX, as {@value #OBJECT_NAME}, and
+ * {@link #dump() dump} writes a report to the {@value #REPORT_FILE_NAME} file
+ * in the application's {@link LocalStorage} directory, or in the temporary
+ * directory if there's no Application, in a benchmark for example.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see ResourceStatisticsMXBean
+ */
+public final class ResourceStatistics implements ResourceStatisticsMXBean {
+
+    /**
+     * The JMX ObjectName of the statistics.
+     */
+    public static final String OBJECT_NAME
+            = "com.gs.platform:type=ResourceStatistics";
+
+    /**
+     * The name of the report file written by {@link #dump()}.
+     */
+    public static final String REPORT_FILE_NAME = "resource-statistics.txt";
+
+    /**
+     * The system property that enables the statistics at startup.
+     */
+    public static final String ENABLED_PROPERTY
+            = "com.gs.platform.resourceStatistics";
+
+    private static final Logger logger = Logger.getLogger(
+            ResourceStatistics.class.getName());
+    private static final int HOT_KEY_COUNT = 20;
+
+    /* Read by ResourceMap on every lookup, null while disabled. */
+    static volatile ResourceStatistics active = null;
+    private static volatile ApplicationContext applicationContext = null;
+
+    private final ConcurrentMap<String, Counters> keyCounters
+            = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class, Counters> typeCounters
+            = new ConcurrentHashMap<>();
+
+    static {
+        if (Boolean.getBoolean(ENABLED_PROPERTY)) {
+            setEnabled(true);
+        }
+    }
+
+    private ResourceStatistics() {
+    }
+
+    private static final class Counters {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder conversions = new LongAdder();
+        private final LongAdder conversionNanos = new LongAdder();
+    }
+
+    /**
+     * Starts or stops gathering statistics. Enabling them starts from
+     * scratch and registers them with the platform MBeanServer, disabling
+     * them unregisters them.
+     *
+     * @param enabled true to gather statistics
+     * @see #isEnabled()
+     */
+    public static synchronized void setEnabled(boolean enabled) {
+        if (enabled == (active != null)) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (enabled) {
+                ResourceStatistics statistics = new ResourceStatistics();
+                active = statistics;
+                server.registerMBean(statistics, name);
+            } else {
+                active = null;
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            }
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "couldn't register " + OBJECT_NAME, e);
+        }
+    }
+
+    /**
+     * Returns true if statistics are being gathered.
+     *
+     * @return true if the statistics are enabled
+     */
+    public static boolean isEnabled() {
+        return active != null;
+    }
+
+    /**
+     * Returns the statistics that are being gathered, or null if they're
+     * disabled.
+     *
+     * @return the current statistics or null
+     */
+    public static ResourceStatistics getInstance() {
+        return active;
+    }
+
+    /* Called by ApplicationContext#setApplication.  dump() can't ask
+     * Application for its context, because getInstance() would create a
+     * placeholder Application when there's none.
+     */
+    static void setApplicationContext(ApplicationContext context) {
+        applicationContext = context;
+    }
+
+    private Counters keyCounters(String key) {
+        Counters counters = keyCounters.get(key);
+        return (counters != null) ? counters : keyCounters.computeIfAbsent(
+                key, k -> new Counters());
+    }
+
+    void hit(String key) {
+        keyCounters(key).hits.increment();
+    }
+
+    void miss(String key) {
+        keyCounters(key).misses.increment();
+    }
+
+    /* A hit that the conversion cache couldn't satisfy. */
+    void conversion(String key, Class type, long nanos) {
+        Counters counters = keyCounters(key);
+        counters.hits.increment();
+        counters.conversions.increment();
+        counters.conversionNanos.add(nanos);
+        counters = typeCounters.computeIfAbsent(type, t -> new Counters());
+        counters.conversions.increment();
+        counters.conversionNanos.add(nanos);
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public long getHitCount() {
+        long n = 0L;
+        for (Counters counters : keyCounters.values()) {
+            n += counters.hits.sum();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public long getMissCount() {
+        long n = 0L;
+        for (Counters counters : keyCounters.values()) {
+            n += counters.misses.sum();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public long getConversionCount() {
+        long n = 0L;
+        for (Counters counters : keyCounters.values()) {
+            n += counters.conversions.sum();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public long getConversionTimeNanos() {
+        long n = 0L;
+        for (Counters counters : keyCounters.values()) {
+            n += counters.conversionNanos.sum();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public double getCacheHitRate() {
+        long hits = getHitCount();
+        return (hits == 0L) ? 0.0 : (double) (hits - getConversionCount())
+                / hits;
+    }
+
+    /**
+     * {@inheritDoc }
+     *
+     * @return {@inheritDoc }
+     */
+    @Override
+    public String[] getHotKeys() {
+        List<String> hotKeys = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : sortedKeyCounters()) {
+            long hits = entry.getValue().hits.sum();
+            if ((hits == 0L) || (hotKeys.size() == HOT_KEY_COUNT)) {
+                break;
+            }
+            hotKeys.add(entry.getKey() + "=" + hits);
+        }
+        return hotKeys.toArray(new String[hotKeys.size()]);
+    }
+
+    private List<Map.Entry<String, Counters>> sortedKeyCounters() {
+        List<Map.Entry<String, Counters>> entries = new ArrayList<>(
+                keyCounters.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<String, Counters> e) -> e.getValue().hits.sum())
+                .reversed());
+        return entries;
+    }
+
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void reset() {
+        keyCounters.clear();
+        typeCounters.clear();
+    }
+
+    /**
+     * Writes a report of the statistics: the totals, the conversion time per
+     * type, and the counts for every key, most frequently looked up first.
+     *
+     * @param writer where the report is written
+     * @throws IllegalArgumentException if writer is null
+     */
+    public void writeReport(Writer writer) {
+        if (writer == null) {
+            throw new IllegalArgumentException("null writer");
+        }
+        PrintWriter out = new PrintWriter(writer);
+        out.printf("hits: %d, misses: %d, conversions: %d (%.3f ms), "
+                + "cache hit rate: %.1f%%%n", getHitCount(), getMissCount(),
+                getConversionCount(), getConversionTimeNanos() / 1e6,
+                getCacheHitRate() * 100.0);
+        out.println();
+        out.println("type\tconversions\tms");
+        for (Map.Entry<Class, Counters> entry : typeCounters.entrySet()) {
+            Counters counters = entry.getValue();
+            out.printf("%s\t%d\t%.3f%n", entry.getKey().getName(),
+                    counters.conversions.sum(),
+                    counters.conversionNanos.sum() / 1e6);
+        }
+        out.println();
+        out.println("key\thits\tmisses\tconversions\tms");
+        for (Map.Entry<String, Counters> entry : sortedKeyCounters()) {
+            Counters counters = entry.getValue();
+            out.printf("%s\t%d\t%d\t%d\t%.3f%n", entry.getKey(),
+                    counters.hits.sum(), counters.misses.sum(),
+                    counters.conversions.sum(),
+                    counters.conversionNanos.sum() / 1e6);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes a report of the statistics to the {@value #REPORT_FILE_NAME}
+     * file in <code>localStorage</code>.
+     *
+     * @param localStorage where the report is written
+     * @throws IOException if the report can't be written
+     * @throws IllegalArgumentException if localStorage is null
+     * @see #writeReport(java.io.Writer)
+     */
+    public void dump(LocalStorage localStorage) throws IOException {
+        if (localStorage == null) {
+            throw new IllegalArgumentException("null localStorage");
+        }
+        try (OutputStream st = localStorage.openOutputFile(REPORT_FILE_NAME);
+                Writer writer = new OutputStreamWriter(st,
+                        StandardCharsets.UTF_8)) {
+            writeReport(writer);
+        }
+    }
+
+    /**
+     * {@inheritDoc }
+     * <p>
+     * If no Application has been created, the report is written to the
+     * {@value #REPORT_FILE_NAME} file in the <code>java.io.tmpdir</code>
+     * directory instead. Use {@link #writeReport(java.io.Writer) writeReport}
+     * to write it somewhere else.</p>
+     *
+     * @throws IOException {@inheritDoc }
+     */
+    @Override
+    public void dump() throws IOException {
+        ApplicationContext context = applicationContext;
+        if (context != null) {
+            dump(context.getLocalStorage());
+            return;
+        }
+        Path file = Paths.get(System.getProperty("java.io.tmpdir"),
+                REPORT_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(file,
+                StandardCharsets.UTF_8)) {
+            writeReport(writer);
+        }
+        logger.log(Level.INFO, "no Application, wrote {0}", file);
+    }
+}
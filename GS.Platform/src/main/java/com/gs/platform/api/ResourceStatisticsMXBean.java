@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceStatisticsMXBean.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 2:31:07 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.io.IOException;
+
+/**
+ * The management interface of {@link ResourceStatistics}, registered with the
+ * platform MBeanServer as {@value ResourceStatistics#OBJECT_NAME} while
+ * resource statistics are enabled.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ */
+public interface ResourceStatisticsMXBean {
+
+    /**
+     * Returns the number of lookups of resources that are defined.
+     *
+     * @return the number of hits
+     */
+    long getHitCount();
+
+    /**
+     * Returns the number of lookups of resources that aren't defined.
+     *
+     * @return the number of misses
+     */
+    long getMissCount();
+
+    /**
+     * Returns the number of times that a resource string was evaluated or
+     * converted, i.e. the number of lookups that the conversion cache couldn't
+     * satisfy.
+     *
+     * @return the number of conversions
+     */
+    long getConversionCount();
+
+    /**
+     * Returns the total time spent evaluating and converting resource strings.
+     *
+     * @return the conversion time in nanoseconds
+     */
+    long getConversionTimeNanos();
+
+    /**
+     * Returns the fraction of hits that didn't need a conversion.
+     *
+     * @return the conversion cache hit rate, between 0 and 1
+     */
+    double getCacheHitRate();
+
+    /**
+     * Returns the most frequently looked up keys, most frequent first, as
+     * "key=hits" strings.
+     *
+     * @return the 20 hottest keys
+     */
+    String[] getHotKeys();
+
+    /**
+     * Discards all of the statistics gathered so far.
+     */
+    void reset();
+
+    /**
+     * Writes a report of the statistics to the application's
+     * {@link LocalStorage} directory, or to the temporary directory if
+     * there's no Application.
+     *
+     * @throws IOException if the report can't be written
+     */
+    void dump() throws IOException;
+}
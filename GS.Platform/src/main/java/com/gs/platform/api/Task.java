@@ -144,6 +144,27 @@ import static javax.swing.SwingWorker.StateValue.STARTED;
  */
 public abstract class Task<T, V> extends SwingWorker<T, V> {
 
+    /**
+     * The lowest priority a Task can have.
+     *
+     * @see #setPriority(int)
+     */
+    public static final int MIN_PRIORITY = 1;
+
+    /**
+     * The priority of a Task by default.
+     *
+     * @see #setPriority(int)
+     */
+    public static final int NORM_PRIORITY = 5;
+
+    /**
+     * The highest priority a Task can have.
+     *
+     * @see #setPriority(int)
+     */
+    public static final int MAX_PRIORITY = 10;
+
     private static final Logger logger = Logger.getLogger(Task.class.getName());
     private final Application application;
     private String resourcePrefix;
@@ -160,6 +181,12 @@ public abstract class Task<T, V> extends SwingWorker<T, V> {
     private boolean userCanCancel = true;
     private boolean progressPropertyIsValid = false;
     private TaskService taskService = null;
+    private volatile int priority = NORM_PRIORITY;
+    private volatile boolean foreground = false;
+    // Compared by TaskService's queue, see captureOrder()
+    private volatile boolean queuedBoosted = false;
+    private volatile int queuedPriority = NORM_PRIORITY;
+    private long executionSequence = 0L;
 
     /**
      * Specifies to what extent the GUI should be blocked a Task is executed by
@@ -332,6 +359,65 @@ public abstract class Task<T, V> extends SwingWorker<T, V> {
         firePropertyChange("taskService", oldTaskService, newTaskService);
     }
 
+    /* Set by TaskMonitor while this is its foreground Task.
+     */
+    void setForeground(boolean foreground) {
+        if (this.foreground != foreground) {
+            reschedule(() -> this.foreground = foreground);
+        }
+    }
+
+    /* True if this Task should run ahead of the Tasks that are waiting to
+     * be run regardless of their priority: the TaskMonitor's foreground
+     * Task, and Tasks that block the GUI while they run.
+     */
+    boolean isBoosted() {
+        if (foreground) {
+            return true;
+        }
+        InputBlocker blocker = getInputBlocker();
+        return (blocker != null) && (blocker.getScope() != BlockingScope.NONE);
+    }
+
+    /* Changes the order this Task is run in, moving it within its
+     * TaskService's queue if it's waiting to be run.
+     */
+    private void reschedule(Runnable change) {
+        TaskService ts = getTaskService();
+        if (ts == null) {
+            change.run();
+        } else {
+            ts.reschedule(this, change);
+        }
+    }
+
+    /* Called by TaskService just before this Task is queued, or requeued
+     * by reschedule.  The queue only compares the captured values, which
+     * don't change while the Task is in the queue, so a change to the
+     * Task's priority, foreground, or InputBlocker that doesn't go through
+     * reschedule can't break the queue's ordering.
+     */
+    void captureOrder() {
+        queuedBoosted = isBoosted();
+        queuedPriority = priority;
+    }
+
+    boolean isQueuedBoosted() {
+        return queuedBoosted;
+    }
+
+    int getQueuedPriority() {
+        return queuedPriority;
+    }
+
+    long getExecutionSequence() {
+        return executionSequence;
+    }
+
+    void setExecutionSequence(long executionSequence) {
+        this.executionSequence = executionSequence;
+    }
+
     /**
      * Returns a Task resource name with the specified suffix. Task resource
      * names are the simple name of the constructor's `resourceClass} parameter,
@@ -632,6 +718,42 @@ public abstract class Task<T, V> extends SwingWorker<T, V> {
         firePropertyChange("userCanCancel", oldValue, newValue);
     }
 
+    /**
+     * Returns the value of the <code>priority</code> property. The default
+     * value of this property is {@link #NORM_PRIORITY}.
+     *
+     * @return the priority of this Task
+     * @see #setPriority(int)
+     */
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Sets the <code>priority</code> property, between {@link #MIN_PRIORITY}
+     * and {@link #MAX_PRIORITY}.
+     * <p>
+     * When all of a TaskService's threads are busy, the Tasks that are
+     * waiting are run in priority order, highest first, and Tasks with the
+     * same priority are run in the order they were executed. The
+     * {@link TaskMonitor#getForegroundTask foreground Task}, and Tasks whose
+     * {@link #getInputBlocker inputBlocker} blocks the GUI, are run before all
+     * of the others. Changing the priority of a Task that's waiting to be run
+     * moves it in the queue.</p>
+     *
+     * @param priority the new priority
+     * @throws IllegalArgumentException if priority is out of range
+     * @see #getPriority()
+     */
+    public void setPriority(int priority) {
+        if ((priority < MIN_PRIORITY) || (priority > MAX_PRIORITY)) {
+            throw new IllegalArgumentException("invalid priority");
+        }
+        int oldValue = this.priority;
+        reschedule(() -> this.priority = priority);
+        firePropertyChange("priority", oldValue, priority);
+    }
+
     /**
      * Returns true if the {@link #setProgress progress} property has been set.
      * Some Tasks don't update the progress property because it's difficult or
@@ -123,6 +123,9 @@ public class TaskMonitor extends AbstractBean {
      * reset to the next most recently executed Task. If `@Action`'s
      * autoUpdateForegroundTask} is false, then the foregroundTask property is
      * not reset automatically.
+     * <p>
+     * The foreground Task runs ahead of the other Tasks waiting for a thread
+     * in its TaskService, whatever their {@link Task#getPriority priority}.
      *
      * @param foregroundTask the task whose properties are reflected by this
      * class
@@ -133,11 +136,13 @@ public class TaskMonitor extends AbstractBean {
         final Task oldTask = this.foregroundTask;
         if (oldTask != null) {
             oldTask.removePropertyChangeListener(taskPCL);
+            oldTask.setForeground(false);
         }
         this.foregroundTask = foregroundTask;
         Task newTask = this.foregroundTask;
         if (newTask != null) {
             newTask.addPropertyChangeListener(taskPCL);
+            newTask.setForeground(true);
         }
         firePropertyChange("foregroundTask", oldTask, newTask);
     }
@@ -36,15 +36,52 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.swing.SwingUtilities;
 
 public class TaskService extends AbstractBean {
 
+    /**
+     * The name of the TaskService that runs each Task on its own virtual
+     * thread.
+     *
+     * @see #newVirtualThreadTaskService(java.lang.String)
+     * @see ApplicationContext#getTaskService(java.lang.String)
+     */
+    public static final String VIRTUAL = "virtual";
+
+    /* The order in which waiting Tasks are run: boosted Tasks first, then
+     * by priority, then in the order in which they were executed.  The
+     * boost and priority are the ones captured when the Task was queued,
+     * see Task#captureOrder.
+     */
+    private static final Comparator<Runnable> TASK_ORDER = (r1, r2) -> {
+        if (!(r1 instanceof Task) || !(r2 instanceof Task)) {
+            return Boolean.compare(r2 instanceof Task, r1 instanceof Task);
+        }
+        Task t1 = (Task) r1;
+        Task t2 = (Task) r2;
+        int order = Boolean.compare(t2.isQueuedBoosted(),
+                t1.isQueuedBoosted());
+        if (order == 0) {
+            order = Integer.compare(t2.getQueuedPriority(),
+                    t1.getQueuedPriority());
+        }
+        if (order == 0) {
+            order = Long.compare(t1.getExecutionSequence(),
+                    t2.getExecutionSequence());
+        }
+        return order;
+    };
+    private static final AtomicLong executionSequence = new AtomicLong();
+
     private final String name;
     private final ExecutorService executorService;
     private final List<Task> tasks;
@@ -68,7 +105,60 @@ public class TaskService extends AbstractBean {
                 3, // corePool size
                 10, // maximumPool size
                 1L, TimeUnit.SECONDS, // non-core threads time to live
-                new LinkedBlockingQueue<Runnable>()));
+                new PriorityBlockingQueue<>(11, TASK_ORDER)));
+    }
+
+    /* Applies a change to a Task's priority, or to whether it's boosted,
+     * moving the Task within the queue if it's waiting to be run.  A
+     * PriorityBlockingQueue doesn't notice when an element's order
+     * changes, so the Task is taken out while it changes.
+     */
+    void reschedule(Task task, Runnable change) {
+        BlockingQueue<Runnable> queue = null;
+        if (executorService instanceof ThreadPoolExecutor) {
+            queue = ((ThreadPoolExecutor) executorService).getQueue();
+        }
+        if ((queue instanceof PriorityBlockingQueue) && queue.remove(task)) {
+            change.run();
+            task.captureOrder();
+            queue.offer(task);
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Creates a TaskService that runs each Task on a new virtual thread,
+     * rather than on a small pool of platform threads. This suits Tasks that
+     * spend most of their time waiting for I/O, like file scans or database
+     * calls, since any number of them can wait at the same time.
+     * <p>
+     * Virtual threads are only available on Java 21 and later. On earlier
+     * Java runtimes the TaskService uses the same thread pool as a TaskService
+     * created with {@link #TaskService(java.lang.String) TaskService(name)}.
+     * </p>
+     *
+     * @param name the name of the TaskService
+     * @return a new TaskService
+     * @throws IllegalArgumentException if name is null
+     * @see #isVirtualThreadsSupported()
+     */
+    public static TaskService newVirtualThreadTaskService(String name) {
+        ExecutorService executorService
+                = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        return (executorService == null) ? new TaskService(name)
+                : new TaskService(name, executorService);
+    }
+
+    /**
+     * Returns true if this Java runtime has virtual threads, i.e. if
+     * {@link #newVirtualThreadTaskService(java.lang.String)
+     * newVirtualThreadTaskService} creates TaskServices that use them.
+     *
+     * @return true on Java 21 and later
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return VirtualThreads.isSupported();
     }
 
     public final String getName() {
@@ -145,6 +235,8 @@ public class TaskService extends AbstractBean {
         }
         firePropertyChange("tasks", oldTaskList, newTaskList);
         maybeBlockTask(task);
+        task.setExecutionSequence(executionSequence.incrementAndGet());
+        task.captureOrder();
         executorService.execute(task);
     }
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   VirtualThreads.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 4:12:36 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Access to virtual threads for a platform that's compiled for Java 11.
+ * <p>
+ * This version of the class is used on Java runtimes that don't have virtual
+ * threads. GS.Platform is a multi-release jar: on Java 21 and later, the
+ * version of this class in <code>META-INF/versions/21</code> is used instead,
+ * which is compiled from <code>src/main/java21</code>.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see TaskService#newVirtualThreadTaskService(java.lang.String)
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /* Returns true if this Java runtime has virtual threads.
+     */
+    static boolean isSupported() {
+        return false;
+    }
+
+    /* Returns an ExecutorService that runs each task on a new virtual
+     * thread, or null if this Java runtime doesn't have virtual threads.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return null;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   VirtualThreads.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 4:12:36 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads for a platform that's compiled for Java 11.
+ * <p>
+ * This is the Java 21 version of the class, compiled from
+ * <code>src/main/java21</code> into the multi-release jar's
+ * <code>META-INF/versions/21</code> directory. It's only built when the
+ * platform is built with JDK 21 or later, or with a JDK 21 toolchain; the
+ * build warns when it isn't.</p>
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ *
+ * @see TaskService#newVirtualThreadTaskService(java.lang.String)
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /* Returns true if this Java runtime has virtual threads.
+     */
+    static boolean isSupported() {
+        return true;
+    }
+
+    /* Returns an ExecutorService that runs each task on a new virtual
+     * thread.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
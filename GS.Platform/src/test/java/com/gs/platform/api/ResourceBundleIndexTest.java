@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2021 GS United Labs
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * *****************************************************************************
+ *  Project    :   SAP
+ *  Class      :   ResourceBundleIndexTest.java
+ *  Author     :   Sean Carrick
+ *  Created    :   Oct 15, 2026 @ 6:12:40 PM
+ *  Modified   :   Oct 15, 2026
+ *
+ *  Purpose:     See class JavaDoc comment.
+ *
+ *  Revision History:
+ *
+ *  WHEN          BY                   REASON
+ *  ------------  -------------------  -----------------------------------------
+ *  Oct 15, 2026  Sean Carrick         Initial creation.
+ * *****************************************************************************
+ */
+package com.gs.platform.api;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that a {@link ResourceBundleIndex} only speaks for the classpath root
+ * it was built from: bundles and locales that are added by a root without an
+ * index, a language pack for example, are still found.
+ *
+ * @author Sean Carrick &lt;sean at pekinsoft dot com&gt;
+ *
+ * @version 1.05
+ * @since 1.05
+ */
+public class ResourceBundleIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private URLClassLoader classLoader;
+    private ResourceBundleIndex index;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        Path indexed = tempDir.resolve("indexed");
+        write(indexed, "p/resources/App.properties", "greeting = Hello");
+        ResourceBundleIndex.main(new String[]{indexed.toString()});
+        Path unindexed = tempDir.resolve("unindexed");
+        write(unindexed, "p/resources/App_fr.properties", "greeting = Bonjour");
+        write(unindexed, "p/resources/Extra.properties", "extra = Extra");
+        classLoader = new URLClassLoader(new URL[]{indexed.toUri().toURL(),
+            unindexed.toUri().toURL()}, ClassLoader.getPlatformClassLoader());
+        index = ResourceBundleIndex.forClassLoader(classLoader);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (classLoader != null) {
+            classLoader.close();
+        }
+    }
+
+    private static void write(Path root, String path, String text)
+            throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testIndexedBundle() {
+        ResourceBundle bundle = index.getBundle("p.resources.App",
+                Locale.GERMAN, classLoader);
+        assertNotNull(bundle);
+        assertEquals("Hello", bundle.getString("greeting"));
+    }
+
+    @Test
+    public void testUnindexedLocale() {
+        ResourceBundle bundle = index.getBundle("p.resources.App",
+                Locale.FRENCH, classLoader);
+        assertNotNull(bundle);
+        assertEquals("Bonjour", bundle.getString("greeting"));
+    }
+
+    @Test
+    public void testUnindexedBundle() {
+        ResourceBundle bundle = index.getBundle("p.resources.Extra",
+                Locale.FRENCH, classLoader);
+        assertNotNull(bundle);
+        assertEquals("Extra", bundle.getString("extra"));
+    }
+
+    @Test
+    public void testMissingBundle() {
+        assertNull(index.getBundle("p.resources.Missing", Locale.FRENCH,
+                classLoader));
+    }
+
+    @Test
+    public void testClassLoaderIsReleased() throws IOException,
+            InterruptedException {
+        assertNotNull(index.getBundle("p.resources.App", Locale.FRENCH,
+                classLoader));
+        WeakReference<ClassLoader> released = new WeakReference<>(
+                classLoader);
+        classLoader.close();
+        classLoader = null;
+        index = null;
+        for (int i = 0; (i < 50) && (released.get() != null); i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertTrue(released.get() == null, "the index kept its ClassLoader");
+    }
+}